@@ -12,36 +12,64 @@ import java.util.List;
  * @since 30/03/2017
  *
  */
-public class AStar {
+public class AStar implements PathFinder {
 
-    private int N; //size of the matrix
-    private String metric; //stores the distance measurement type
-    private Node[][] nodes; //2D array to store the nodes on the grid
+    // Row and column offsets of the adjacent cells, the horizontal and vertical moves come first
+    private static final int[] DI = {-1, 1, 0, 0, -1, -1, 1, 1};
+    private static final int[] DJ = {0, 0, -1, 1, -1, 1, -1, 1};
 
-    private double hvCost;
-    private double diagonalCost;
+    private final int rows; //number of rows of the matrix
+    private final int columns; //number of columns of the matrix, the stride of the cell indices
+    private final Grid grid; //bitmap of the walkable cells on the grid, never written by a search
+
+    private final double hvCost;
+    private final double diagonalCost;
+    private final int directions; //4 for Manhattan, 8 when diagonal moves are allowed
+    private final Heuristic heuristic; //estimate of the cost to the goal, chosen once for the metric
+    private final LandmarkTable landmarks; //optional landmark bounds tightening the heuristic, may be null
+    private volatile SearchMetrics metrics; //counters of the searches, null while instrumentation is disabled
 
 
 
     public AStar(int N , Node[][] nodes , String metric){
-        this.N = N;
-        this.nodes = nodes;
-        this.metric = metric;
-
-        if(metric.equals("Manhattan")){
-            hvCost = 1.0;
-            diagonalCost = 2.0;
-        }else if(metric.equals("Euclidean")){
-            hvCost = 1.0;
-            diagonalCost = 1.4;
-        }else if(metric.equals("Chebyshev")){
-            hvCost = 1.0;
-            diagonalCost = 1.0;
-        }
+        this(Grid.fromNodes(nodes), metric);
+    }
+
+    public AStar(Grid grid , String metric){
+        this(grid, metric, Heuristic.forMetric(metric), null);
+    }
+
+    /**
+     * @param grid The grid to be searched
+     * @param metric The distance measurement type
+     * @param landmarks Landmark bounds of the grid combined with the metric's heuristic
+     */
+    public AStar(Grid grid , String metric , LandmarkTable landmarks){
+        this(grid, metric, Heuristic.forMetric(metric), landmarks);
     }
 
     /**
-     * This method calculates the shortest path using the starting node and the ending node
+     * @param grid The grid to be searched
+     * @param metric The distance measurement type
+     * @param heuristic The heuristic to be used, should be consistent with the metric's moves
+     * @param landmarks Landmark bounds of the grid combined with the heuristic, null for none
+     */
+    public AStar(Grid grid , String metric , Heuristic heuristic , LandmarkTable landmarks){
+        this.rows = grid.getRows();
+        this.columns = grid.getColumns();
+        this.grid = grid;
+        this.heuristic = heuristic;
+        this.landmarks = landmarks;
+
+        hvCost = 1.0;
+        diagonalCost = Heuristic.diagonalCost(metric);
+        directions = Heuristic.directions(metric);
+    }
+
+    /**
+     * This method calculates the shortest path using the starting node and the ending node. The search
+     * state lives in the calling thread's SearchContext, so any number of threads may call this method
+     * on the same instance at once.
      *
      * @param startI Row number of the starting node
      * @param startJ Column number of the starting node
@@ -58,230 +86,332 @@ public class AStar {
             return new LinkedList<Node>();
         }
 
-        // The set of nodes already visited.
-        List<Node> openList = new LinkedList<Node>();
-        // The set of currently discovered nodes still to be visited.
-        List<Node> closedList = new LinkedList<Node>();
+        SearchContext context = search(startI, startJ, goalI, goalJ);
+        if (context == null)
+        {
+            // No path exists, return an empty list.
+            return new LinkedList<Node>();
+        }
+        // Return a LinkedList containing all of the visited nodes.
+        return calcPath(context, grid.index(startI, startJ), grid.index(goalI, goalJ));
+    }
 
-        Node current = null;
+    /**
+     * Calculates the shortest path and streams its cells to a sink in order, from the first step after
+     * the start to the goal. Nothing is allocated per step.
+     *
+     * @param startI Row number of the starting node
+     * @param startJ Column number of the starting node
+     * @param goalI Row number of the goal node
+     * @param goalJ Column number of the goal node
+     * @param sink Receives the cells of the path, nothing if no path exists or the start is the goal
+     * @return The total cost of the path, 0 when no move is needed and infinity when no path exists
+     */
+    @Override
+    public double findPath(int startI, int startJ, int goalI, int goalJ, PathSink sink)
+    {
+        if (startI == goalI && startJ == goalJ)
+        {
+            return 0.0;
+        }
 
-        openList.add(nodes[startI][startJ]);
+        SearchContext context = search(startI, startJ, goalI, goalJ);
+        if (context == null)
+        {
+            return Double.POSITIVE_INFINITY;
+        }
 
+        int start = grid.index(startI, startJ);
+        int goal = grid.index(goalI, goalJ);
 
-        // This loop will be broken as soon as the current node position is
-        // equal to the goal position.
-        while (true)
+        // Turn the parent links of the path around so they lead from the start to the goal. The
+        // context is reset before its next search, so the links can be overwritten.
+        int next = -1;
+        for (int cell = goal; cell != start; )
         {
-            // Gets node with the lowest F score from open list.
-            current = lowestFInList(openList);
-            // Remove current node from open list.
-            openList.remove(current);
-            // Add current node to closed list.
-            closedList.add(current);
-
-            // If the current node position is equal to the goal position ...
-            if ((current.getI() == goalI) && (current.getJ() == goalJ))
-            {
-                // Return a LinkedList containing all of the visited nodes.
-                return calcPath(nodes[startI][startJ], current);
-            }
-
-            List<Node> adjacentNodes = getAdjacent(current, closedList);
-            for (Node adjacent : adjacentNodes)
-            {
-                // If node is not in the open list ...
-                if (!openList.contains(adjacent))
-                {
-                    // Set current node as parent for this node.
-                    adjacent.setParent(current);
-                    // Set H costs of this node (estimated costs to goal).
-                    adjacent.setH(nodes[goalI][goalJ] , metric);
-                    // Set G costs of this node (costs from start to this node).
-                    //adjacent.setG(current);
-                    // Add node to openList.
-                    openList.add(adjacent);
-                }
-                // Else if the node is in the open list and the G score from
-                // current node is cheaper than previous costs ...
-                else if (adjacent.getG() > adjacent.calculateGValue(current))
-                {
-                    // Set current node as parent for this node.
-                    adjacent.setParent(current);
-                    // Set G costs of this node (costs from start to this node).
-                    //adjacent.setG(current);
-                }
-            }
+            int previous = context.getParent(cell);
+            context.setParent(cell, next);
+            next = cell;
+            cell = previous;
+        }
+        for (int cell = next; cell >= 0; cell = context.getParent(cell))
+        {
+            sink.accept(cell / columns, cell % columns);
+        }
+        return context.getG(goal);
+    }
 
-            // If no path exists ...
-            if (openList.isEmpty())
-            {
-                // Return an empty list.
-                return new LinkedList<Node>();
-            }
-            // But if it does, continue the loop.
+    /**
+     * Calculates the cost of the shortest path without building the path.
+     *
+     * @param startI Row number of the starting node
+     * @param startJ Column number of the starting node
+     * @param goalI Row number of the goal node
+     * @param goalJ Column number of the goal node
+     * @return The total cost of the path, 0 when no move is needed and infinity when no path exists
+     */
+    public double findCost(int startI, int startJ, int goalI, int goalJ)
+    {
+        if (startI == goalI && startJ == goalJ)
+        {
+            return 0.0;
         }
 
+        SearchContext context = search(startI, startJ, goalI, goalJ);
+        return context == null ? Double.POSITIVE_INFINITY : context.getG(grid.index(goalI, goalJ));
     }
 
     /**
-     * @param start
-     *            The first node on the path.
-     * @param goal
-     *            The last node on the path.
-     * @return a list containing all of the visited nodes, from the goal to the
-     *         start.
+     * Calculates the number of steps of the shortest path without building the path.
+     *
+     * @param startI Row number of the starting node
+     * @param startJ Column number of the starting node
+     * @param goalI Row number of the goal node
+     * @param goalJ Column number of the goal node
+     * @return The number of cells on the path after the start, -1 when no path exists
      */
-    private List<Node> calcPath(Node start, Node goal)
+    public int findLength(int startI, int startJ, int goalI, int goalJ)
     {
-        LinkedList<Node> path = new LinkedList<Node>();
+        if (startI == goalI && startJ == goalJ)
+        {
+            return 0;
+        }
 
-        Node node = goal;
-        boolean done = false;
-        while (!done)
+        SearchContext context = search(startI, startJ, goalI, goalJ);
+        if (context == null)
         {
-            path.addFirst(node);
-            node = node.getParent();
-            if (node.equals(start))
-            {
-                done = true;
-            }
+            return -1;
         }
-        return path;
+        int start = grid.index(startI, startJ);
+        int length = 0;
+        for (int cell = grid.index(goalI, goalJ); cell != start; cell = context.getParent(cell))
+        {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Runs a search and captures its G, H and F values, the order the cells were expanded in and the
+     * path, to be written out with SearchDump.write or writePng. Meant for debugging, the dump holds
+     * several values per cell of the grid.
+     *
+     * @param startI Row number of the starting node
+     * @param startJ Column number of the starting node
+     * @param goalI Row number of the goal node
+     * @param goalJ Column number of the goal node
+     * @return The state of the search, with nothing discovered when the goal can't be reached
+     */
+    public SearchDump dump(int startI, int startJ, int goalI, int goalJ)
+    {
+        int[] order = new int[grid.cellCount()];
+        SearchContext context = search(startI, startJ, goalI, goalJ, null, 0, order);
+        return new SearchDump(grid, context, order, grid.index(startI, startJ), grid.index(goalI, goalJ));
     }
 
     /**
-     * @param list
-     *            The list to be checked.
-     * @return The node with the lowest F score in the list.
+     * Attaches counters every later search records into, or detaches them. Without metrics a search is
+     * neither timed nor counted.
+     *
+     * @param metrics The counters to record into, null to disable instrumentation
      */
-    private Node lowestFInList(List<Node> list)
+    public void setMetrics(SearchMetrics metrics)
     {
-        Node cheapest = list.get(0);
-        for (int i = 0; i < list.size(); i++)
-        {
-            if (list.get(i).getF() < cheapest.getF())
-            {
-                cheapest = list.get(i);
-            }
-        }
-        return cheapest;
+        this.metrics = metrics;
     }
 
+    /**
+     * @return The counters the searches record into, null while instrumentation is disabled
+     */
+    public SearchMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * Runs the search between two different cells.
+     *
+     * @return The calling thread's search context holding the parents and G values of the path, null if
+     *         no path exists
+     */
+    private SearchContext search(int startI, int startJ, int goalI, int goalJ)
+    {
+        SearchMetrics metrics = this.metrics;
+        return search(startI, startJ, goalI, goalJ, metrics, metrics == null ? 0 : System.nanoTime(), null);
+    }
 
     /**
-     * @param node
-     *            The node to be checked for adjacent nodes.
-     * @param closedList
-     *            A list containing all of the nodes already visited.
-     * @return A LinkedList with nodes adjacent to the given node if those
-     *         exist, are walkable and are not already in the closed list.
+     * Runs the search between two different cells, recording what it did when asked to.
+     *
+     * @param metrics Receives the latency, the expanded, generated and improved cells and the largest
+     *                open list size, null to record nothing
+     * @param started Time the query started at, in System.nanoTime units
+     * @param order Receives the rank of the expansion of every cell, null to record nothing
+     * @return The calling thread's search context holding the parents and G values of the path, null if
+     *         no path exists
      */
-    private List<Node> getAdjacent(Node node, List<Node> closedList )
+    private SearchContext search(int startI, int startJ, int goalI, int goalJ, SearchMetrics metrics, long started,
+            int[] order)
     {
-        List<Node> adjacentNodes = new LinkedList<Node>();
-        int i = node.getI();
-        int j = node.getJ();
+        int start = grid.index(startI, startJ);
+        int goal = grid.index(goalI, goalJ);
 
-        Node adjacent;
-        // Check top nodes
-        if (i > 0)
+        // If the goal lies in another component no path exists, return without searching.
+        if (!grid.mayConnect(start, goal, directions == 8))
         {
-            //Top node
-            adjacent = getNode (i - 1, j );
-            if (adjacent != null && adjacent.isNotBlocked() && !closedList.contains(adjacent)
-                    /*&& adjacent.getG() >= node.getG() + hvCost*/)
-            {
-                adjacent.setG(node , hvCost);
-                adjacentNodes.add(adjacent);
-            }
+            record(metrics, started, 0, 0, 0, 0);
+            return null;
+        }
 
+        // The calling thread's search state, with the previous search already forgotten.
+        SearchContext context = SearchContext.forGrid(grid);
+        IntHeap openList = context.openList;
 
-            if(!metric.equals("Manhattan")) {
-                // Top Left
-                if (j - 1 >= 0) {
-                    adjacent = getNode(i - 1, j - 1);
-                    if (adjacent != null && adjacent.isNotBlocked() && !closedList.contains(adjacent)
-                        /*&& adjacent.getG() >= node.getG() + diagonalCost*/) {
-                        adjacent.setG(node, diagonalCost);
-                        adjacentNodes.add(adjacent);
-                    }
-                }
+        // On weighted terrain every move costs at least the cheapest cell's cost times the step, so the
+        // heuristic scaled by that cost still never overestimates.
+        boolean weighted = grid.hasCosts();
+        double scale = weighted ? grid.getMinCost() : 1.0;
 
-                // Top Right
-                if (j + 1 < N) {
-                    adjacent = getNode(i - 1, j + 1);
-                    if (adjacent != null && adjacent.isNotBlocked() && !closedList.contains(adjacent)
-                        /*&& adjacent.getG() >= node.getG() + diagonalCost*/) {
-                        adjacent.setG(node, diagonalCost);
-                        adjacentNodes.add(adjacent);
-                    }
-                }
-            }
-        }
+        context.discover(start, -1, 0, (float) estimate(start, startI, startJ, goal, goalI, goalJ, scale));
+
+        // Plain locals while counting, handed to the metrics once the search ends
+        int expanded = 0, generated = 1, improved = 0, maxOpen = 1;
 
-        // Check bottom nodes
-        if (i < N)
+        while (!openList.isEmpty())
         {
-            //bottom node
-            adjacent = getNode(i + 1, j);
-            if (adjacent != null && adjacent.isNotBlocked() && !closedList.contains(adjacent)
-                    /*&& adjacent.getG() >= node.getG() + hvCost*/)
+            if (metrics != null)
             {
-                adjacent.setG(node , hvCost);
-                adjacentNodes.add(adjacent);
+                maxOpen = Math.max(maxOpen, openList.size());
             }
 
-            if(!metric.equals("Manhattan")) {
-                //bottom left node
-                if (j - 1 >= 0) {
-                    adjacent = getNode(i + 1, j - 1);
-                    if (adjacent != null && adjacent.isNotBlocked() && !closedList.contains(adjacent)
-                        /*&& adjacent.getG() >= node.getG() + diagonalCost*/) {
-                        adjacent.setG(node, diagonalCost);
-                        adjacentNodes.add(adjacent);
-                    }
-                }
+            // Removes the cell with the lowest F score from open list. Once a discovered
+            // cell has left the open list it is closed.
+            int current = openList.poll();
+            expanded++;
+            if (order != null)
+            {
+                order[current] = expanded;
+            }
 
-                //bottom right node
-                if (j + 1 > N) {
-                    adjacent = getNode(i + 1, j + 1);
-                    if (adjacent != null && adjacent.isNotBlocked() && !closedList.contains(adjacent)
-                        /*&& adjacent.getG() >= node.getG() + diagonalCost*/) {
-                        adjacent.setG(node, diagonalCost);
-                        adjacentNodes.add(adjacent);
-                    }
-                }
+            // If the current cell is the goal ...
+            if (current == goal)
+            {
+                openList.clear();
+                record(metrics, started, expanded, generated, improved, maxOpen);
+                return context;
             }
 
-        }
+            int i = current / columns;
+            int j = current % columns;
+            for (int d = 0; d < directions; d++)
+            {
+                int adjacentI = i + DI[d];
+                int adjacentJ = j + DJ[d];
+                if (adjacentI < 0 || adjacentI >= rows || adjacentJ < 0 || adjacentJ >= columns)
+                {
+                    continue;
+                }
+                int adjacent = current + DI[d] * columns + DJ[d];
+                if (!grid.isOpen(adjacent))
+                {
+                    continue;
+                }
 
-        // Check left node
-        if (j > 0)
-        {
+                double step = d < 4 ? hvCost : diagonalCost;
+                double adjacentG = context.getG(current) + (weighted ? step * grid.getCost(adjacent) : step);
 
-            adjacent = getNode(i, j - 1);
-            if (adjacent != null && adjacent.isNotBlocked() && !closedList.contains(adjacent)
-                    /*&& adjacent.getG() >= node.getG() + hvCost*/)
-            {
-                adjacent.setG(node , hvCost);
-                adjacentNodes.add(adjacent);
+                // If cell has not been discovered yet ...
+                if (!context.isDiscovered(adjacent))
+                {
+                    context.discover(adjacent, current, adjacentG,
+                            (float) estimate(adjacent, adjacentI, adjacentJ, goal, goalI, goalJ, scale));
+                    generated++;
+                }
+                // Else if the cell is in the open list and the G score from
+                // current cell is cheaper than previous costs ...
+                else if (openList.contains(adjacent) && context.getG(adjacent) > adjacentG)
+                {
+                    context.improve(adjacent, current, adjacentG);
+                    improved++;
+                }
             }
+        }
 
+        // No path exists.
+        record(metrics, started, expanded, generated, improved, maxOpen);
+        return null;
+    }
 
+    private static void record(SearchMetrics metrics, long started, int expanded, int generated, int improved,
+            int maxOpen)
+    {
+        if (metrics != null)
+        {
+            metrics.record(System.nanoTime() - started, expanded, generated, improved, maxOpen);
         }
+    }
 
-        // Check right node
-        if (j < N)
+    /**
+     * Estimates the cost of the cheapest path between two cells
+     *
+     * @param cell Index of the cell
+     * @param i Row number of the cell
+     * @param j Column number of the cell
+     * @param goal Index of the goal
+     * @param goalI Row number of the goal
+     * @param goalJ Column number of the goal
+     * @param scale Cheapest terrain cost of the grid
+     * @return The heuristic value of the cell
+     */
+    private double estimate(int cell, int i, int j, int goal, int goalI, int goalJ, double scale)
+    {
+        double h = scale * heuristic.estimate(Math.abs(i - goalI), Math.abs(j - goalJ));
+        if (landmarks != null)
         {
-            adjacent = getNode(i, j + 1);
-            if (adjacent != null && adjacent.isNotBlocked() && !closedList.contains(adjacent)
-                   /*&& adjacent.getG() >= node.getG() + hvCost*/)
+            h = Math.max(h, landmarks.estimate(cell, goal));
+        }
+        return h;
+    }
+
+    /**
+     * @param context
+     *            The search state holding the parents of the cells.
+     * @param start
+     *            The first cell on the path.
+     * @param goal
+     *            The last cell on the path.
+     * @return a list containing all of the visited nodes, from the start to the
+     *         goal ( the start node itself is the parent of the first node ).
+     */
+    private List<Node> calcPath(SearchContext context, int start, int goal)
+    {
+        LinkedList<Node> path = new LinkedList<Node>();
+
+        Node child = null;
+        for (int cell = goal; cell != start; cell = context.getParent(cell))
+        {
+            Node node = toNode(context, cell);
+            if (child != null)
             {
-                adjacent.setG(node , hvCost);
-                adjacentNodes.add(adjacent);
+                child.setParent(node);
             }
+            path.addFirst(node);
+            child = node;
         }
-        return adjacentNodes;
+        child.setParent(toNode(context, start));
+        return path;
+    }
+
+    /**
+     * @param context The search state holding the G values of the cells
+     * @param cell Index of a discovered cell
+     * @return A node view of the cell carrying its G value
+     */
+    private Node toNode(SearchContext context, int cell)
+    {
+        Node node = new Node(cell / columns, cell % columns, true);
+        node.g = context.getG(cell);
+        return node;
     }
 
     /**
@@ -295,9 +425,9 @@ public class AStar {
 
     public Node getNode(int i, int j)
     {
-        if (i >= 0 && i < N && j >= 0 && j < N)
+        if (grid.contains(i, j))
         {
-            return nodes[i][j];
+            return new Node(i, j, grid.isOpen(i, j));
         }
         else
         {
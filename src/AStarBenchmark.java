@@ -0,0 +1,199 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ *
+ * Reproducible benchmark of the path finders, separate from the interactive Main. Grids are generated
+ * from a seed by GridGenerator over a range of maps, sizes ( square, or rows x columns ), walkable ratios
+ * and metrics, and a fixed seeded set of start/goal pairs is answered on each. The random map is the one
+ * of Main.random ( every cell is walkable with probability p ), clutter has blobs of obstacles covering
+ * about 1 - p of the cells, and maze and rooms ignore p. For every combination the throughput, the
+ * average time per query and the bytes allocated per query are reported after a warm-up.
+ *
+ * Usage : java AStarBenchmark [--maps random,clutter,maze,rooms] [--sizes 64,256,1024,50000x800]
+ *         [--ratios 0.9,0.75,0.6] [--metrics Manhattan,Euclidean,Chebyshev]
+ *         [--engines AStar,ALT,Bidirectional,JPS,JPS+] [--queries 20] [--warmup 3] [--iterations 5]
+ *         [--seed 42]
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class AStarBenchmark {
+
+    private String[] maps = {"random"};
+    private int[][] sizes = {{64, 64}, {256, 256}, {1024, 1024}, {2048, 2048}, {4096, 4096}, {8192, 8192}};
+    private double[] ratios = {0.9, 0.75, 0.6};
+    private String[] metrics = {"Manhattan", "Euclidean", "Chebyshev"};
+    private String[] engines = {"AStar"};
+    private int queries = 20; //start/goal pairs per grid
+    private int warmup = 3; //iterations run before measuring
+    private int iterations = 5; //measured iterations
+    private long seed = 42; //seed of the grids and the queries
+
+    public static void main(String[] args) {
+        AStarBenchmark benchmark = new AStarBenchmark();
+        for (int k = 0; k < args.length; k += 2) {
+            if (k + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[k]);
+            }
+            String value = args[k + 1];
+            switch (args[k]) {
+                case "--maps": benchmark.maps = value.split(","); break;
+                case "--sizes": benchmark.sizes = parseSizes(value); break;
+                case "--ratios": benchmark.ratios = parseDoubles(value); break;
+                case "--metrics": benchmark.metrics = value.split(","); break;
+                case "--engines": benchmark.engines = value.split(","); break;
+                case "--queries": benchmark.queries = Integer.parseInt(value); break;
+                case "--warmup": benchmark.warmup = Integer.parseInt(value); break;
+                case "--iterations": benchmark.iterations = Integer.parseInt(value); break;
+                case "--seed": benchmark.seed = Long.parseLong(value); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[k]);
+            }
+        }
+        benchmark.run();
+    }
+
+    /**
+     * Runs every combination and prints one line per combination.
+     */
+    public void run() {
+        System.out.println(String.format(Locale.ROOT, "%-14s %-8s %11s %5s %-10s %12s %12s %14s %8s",
+                "Engine", "Map", "Size", "p", "Metric", "ops/s", "ms/op", "alloc B/op", "found"));
+
+        for (String map : maps) {
+            boolean ratio = map.equals("random") || map.equals("clutter");
+            for (int[] size : sizes) {
+                for (double p : ratio ? ratios : new double[]{Double.NaN}) {
+                    Grid grid = generate(map, size[0], size[1], p, seed);
+                    int[][] pairs = randomQueries(grid, queries, seed + 1);
+                    String combination = String.format(Locale.ROOT, "%-8s %11s %5s", map, size[0] + "x" + size[1],
+                            ratio ? String.format(Locale.ROOT, "%.2f", p) : "-");
+
+                    for (String metric : metrics) {
+                        for (String engine : engines) {
+                            PathFinder pathFinder = create(engine, grid, metric);
+                            if (pathFinder == null) {
+                                continue;
+                            }
+                            measure(engine, pathFinder, combination, metric, pairs);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The map of the given name
+     */
+    static Grid generate(String map, int rows, int columns, double p, long seed) {
+        switch (map) {
+            case "random": return GridGenerator.random(rows, columns, p, seed);
+            case "clutter": return GridGenerator.clutter(rows, columns, p, 16, seed);
+            case "maze": return GridGenerator.maze(rows, columns, seed);
+            case "rooms": return GridGenerator.rooms(rows, columns, 16, seed);
+            default: throw new IllegalArgumentException("Unknown map: " + map);
+        }
+    }
+
+    /**
+     * @return The engine with the given name, null if it doesn't support the metric
+     */
+    private static PathFinder create(String engine, Grid grid, String metric) {
+        boolean diagonal = Heuristic.directions(metric) == 8;
+        switch (engine) {
+            case "AStar": return new AStar(grid, metric);
+            case "ALT": return new AStar(grid, metric, new LandmarkTable(grid, metric, 8));
+            case "Bidirectional": return new BidirectionalAStar(grid, metric);
+            case "JPS": return diagonal ? new JumpPointSearch(grid, metric, false) : null;
+            case "JPS+": return diagonal ? new JumpPointSearch(grid, metric, true) : null;
+            default: throw new IllegalArgumentException("Unknown engine: " + engine);
+        }
+    }
+
+    private void measure(String engine, PathFinder pathFinder, String combination, String metric, int[][] pairs) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        int found = 0;
+
+        for (int w = 0; w < warmup; w++) {
+            runQueries(pathFinder, pairs);
+        }
+
+        long bytesBefore = allocatedBytes(threads, thread);
+        long timeBefore = System.nanoTime();
+        for (int it = 0; it < iterations; it++) {
+            found = runQueries(pathFinder, pairs);
+        }
+        long elapsed = System.nanoTime() - timeBefore;
+        long allocated = allocatedBytes(threads, thread) - bytesBefore;
+
+        long operations = (long) iterations * pairs.length;
+        double opsPerSecond = operations / (elapsed / 1e9);
+        double msPerOp = elapsed / 1e6 / operations;
+        String bytesPerOp = allocated < 0 ? "n/a" : String.valueOf(allocated / operations);
+
+        System.out.println(String.format(Locale.ROOT, "%-14s %s %-10s %12.2f %12.4f %14s %4d/%-3d",
+                engine, combination, metric, opsPerSecond, msPerOp, bytesPerOp, found, pairs.length));
+    }
+
+    /**
+     * @return The number of queries a path was found for
+     */
+    private static int runQueries(PathFinder pathFinder, int[][] pairs) {
+        int found = 0;
+        for (int[] pair : pairs) {
+            if (!pathFinder.findPath(pair[0], pair[1], pair[2], pair[3]).isEmpty()) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return The bytes allocated so far by the thread, -1 if the JVM doesn't track them
+     */
+    private static long allocatedBytes(ThreadMXBean threads, long thread) {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(thread);
+        }
+        return -1;
+    }
+
+    /**
+     * @return Seeded start/goal pairs of walkable cells as { startI, startJ, goalI, goalJ }
+     */
+    static int[][] randomQueries(Grid grid, int count, long seed) {
+        Random random = new Random(seed);
+        int rows = grid.getRows();
+        int columns = grid.getColumns();
+        List<int[]> pairs = new ArrayList<int[]>();
+        for (int attempt = 0; pairs.size() < count && attempt < count * 1000; attempt++) {
+            int[] pair = {random.nextInt(rows), random.nextInt(columns), random.nextInt(rows), random.nextInt(columns)};
+            if (grid.isOpen(pair[0], pair[1]) && grid.isOpen(pair[2], pair[3])) {
+                pairs.add(pair);
+            }
+        }
+        return pairs.toArray(new int[pairs.size()][]);
+    }
+
+    private static int[][] parseSizes(String value) {
+        String[] parts = value.split(",");
+        int[][] result = new int[parts.length][];
+        for (int k = 0; k < parts.length; k++) result[k] = Grid.parseSize(parts[k]);
+        return result;
+    }
+
+    private static double[] parseDoubles(String value) {
+        String[] parts = value.split(",");
+        double[] result = new double[parts.length];
+        for (int k = 0; k < parts.length; k++) result[k] = Double.parseDouble(parts[k].trim());
+        return result;
+    }
+}
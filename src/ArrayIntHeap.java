@@ -0,0 +1,36 @@
+import java.util.Arrays;
+
+/**
+ *
+ * IntHeap keeping the heap position of every cell in an array on the heap.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class ArrayIntHeap extends IntHeap {
+
+    private final int[] position; //heap position of every cell, -1 when the cell is not in the heap
+
+    /**
+     * @param cellCount Number of distinct cells that can be added to the heap
+     */
+    public ArrayIntHeap(int cellCount)
+    {
+        position = new int[cellCount];
+        Arrays.fill(position, -1);
+    }
+
+    @Override
+    protected int getPosition(int cell)
+    {
+        return position[cell];
+    }
+
+    @Override
+    protected void setPosition(int cell, int position)
+    {
+        this.position[cell] = position;
+    }
+}
@@ -0,0 +1,90 @@
+import java.util.Arrays;
+
+/**
+ *
+ * SearchContext keeping the state of every cell in arrays on the heap.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class ArraySearchContext extends SearchContext {
+
+    private final double[] g; //cost from the start to every discovered cell
+    private final float[] h; //estimated cost from every discovered cell to the goal
+    private final int[] parent; //previous cell on the cheapest known path to every discovered cell
+    private final int[] discovered; //generation stamp per cell, equal to the current generation once discovered
+
+    /**
+     * @param cellCount Number of cells the context can hold
+     */
+    public ArraySearchContext(int cellCount)
+    {
+        super(new ArrayIntHeap(cellCount));
+        g = new double[cellCount];
+        h = new float[cellCount];
+        parent = new int[cellCount];
+        discovered = new int[cellCount];
+    }
+
+    @Override
+    public int capacity()
+    {
+        return g.length;
+    }
+
+    @Override
+    protected void clearStamps()
+    {
+        Arrays.fill(discovered, 0);
+    }
+
+    @Override
+    public boolean isDiscovered(int cell)
+    {
+        return discovered[cell] == generation;
+    }
+
+    @Override
+    public void discover(int cell, int parentCell, double gValue, float hValue)
+    {
+        discovered[cell] = generation;
+        parent[cell] = parentCell;
+        g[cell] = gValue;
+        h[cell] = hValue;
+        openList.add(cell, gValue + hValue);
+    }
+
+    @Override
+    public void improve(int cell, int parentCell, double gValue)
+    {
+        parent[cell] = parentCell;
+        g[cell] = gValue;
+        openList.decreaseKey(cell, gValue + h[cell]);
+    }
+
+    @Override
+    public double getG(int cell)
+    {
+        return g[cell];
+    }
+
+    @Override
+    public float getH(int cell)
+    {
+        return h[cell];
+    }
+
+    @Override
+    public int getParent(int cell)
+    {
+        return parent[cell];
+    }
+
+    @Override
+    public void setParent(int cell, int parentCell)
+    {
+        parent[cell] = parentCell;
+    }
+}
@@ -0,0 +1,311 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import javax.management.JMException;
+
+/**
+ *
+ * Headless entry point for bulk path queries. Unlike Main it never touches StdDraw or AWT and reads no
+ * interactive input : the grid, the metric and the queries come from the arguments and files, and one
+ * compact line is written to standard output per query, in input order.
+ *
+ * Usage : java BatchMain ( --grid FILE | --map FILE | --random SIZE P SEED ) [--save FILE]
+ *         [--metric Euclidean] [--engine AStar] [--queries FILE] [--threads K] [--cache PATHS] [--stats]
+ *         [--dump FILE startI startJ goalI goalJ] [--offheap]
+ *
+ * SIZE is N for an NxN grid or ROWSxCOLUMNS. The grid file holds the number of rows and columns
+ * followed by one 0 ( blocked ) or 1 ( walkable ) per cell, the format StdArrayIO uses for boolean
+ * matrices. Values from 2 to 255 mark walkable cells with that terrain cost. --map opens a binary
+ * grid file ( see GridFile ) through a memory mapping instead, and --save writes the grid in that
+ * format before the queries are answered. With a grid file the ALT engine loads its landmark table
+ * from next to the file, building and saving it there on first use. --cache answers repeated queries
+ * from a PathCache holding up to PATHS paths and reports its hits and misses on standard error.
+ * --stats records SearchMetrics for the AStar and ALT engines, registers them with JMX and prints
+ * them on standard error. --dump writes the search of one query with the AStar or ALT engine as a
+ * SearchDump, a PNG heatmap of the F values when FILE ends with ".png" and the packed binary layout
+ * otherwise, before the queries are answered. --offheap copies the grid into an OffHeapGrid, whose
+ * searches keep their state outside the heap too ( raise -XX:MaxDirectMemorySize to fit 24 bytes per
+ * cell ). The queries ( standard input when no file is given ) are lines of "startI startJ goalI
+ * goalJ". Every output line is "startI startJ goalI goalJ cost length", the cost being -1 when no
+ * path exists ( including queries that start or end on a blocked cell ).
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class BatchMain {
+
+    // Queries answered together before their results are written
+    private static final int CHUNK = 4096;
+
+    // Landmarks of the ALT engine
+    private static final int LANDMARKS = 8;
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+
+        Grid grid = null;
+        String metric = "Euclidean";
+        String engine = "AStar";
+        String queries = null;
+        String save = null;
+        String gridFile = null; //binary grid file the landmark tables are kept next to
+        int threads = Runtime.getRuntime().availableProcessors();
+        int cacheSize = 0; //paths kept by the cache, 0 for no cache
+        boolean stats = false;
+        String dump = null; //file the search of dumpQuery is written to
+        int[] dumpQuery = null;
+        boolean offHeap = false;
+
+        for (int k = 0; k < args.length; k++) {
+            switch (args[k]) {
+                case "--grid": grid = readGrid(value(args, k++, 1)); break;
+                case "--map": gridFile = value(args, k++, 1); grid = GridFile.open(Paths.get(gridFile), false); break;
+                case "--save": save = value(args, k++, 1); gridFile = save; break;
+                case "--random":
+                    int[] size = Grid.parseSize(value(args, k, 3));
+                    grid = GridGenerator.random(size[0], size[1],
+                            Double.parseDouble(args[k + 2]), Long.parseLong(args[k + 3]));
+                    k += 3;
+                    break;
+                case "--metric": metric = value(args, k++, 1); break;
+                case "--engine": engine = value(args, k++, 1); break;
+                case "--queries": queries = value(args, k++, 1); break;
+                case "--threads": threads = Integer.parseInt(value(args, k++, 1)); break;
+                case "--cache": cacheSize = Integer.parseInt(value(args, k++, 1)); break;
+                case "--stats": stats = true; break;
+                case "--offheap": offHeap = true; break;
+                case "--dump":
+                    dump = value(args, k, 5);
+                    dumpQuery = new int[4];
+                    for (int q = 0; q < 4; q++) {
+                        dumpQuery[q] = Integer.parseInt(args[k + 2 + q]);
+                    }
+                    k += 5;
+                    break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[k]);
+            }
+        }
+        if (grid == null) {
+            throw new IllegalArgumentException("A grid is required: --grid FILE, --map FILE or --random SIZE P SEED");
+        }
+        if (save != null) {
+            GridFile.write(grid, Paths.get(save));
+        }
+        if (offHeap) {
+            grid = OffHeapGrid.copyOf(grid);
+        }
+
+        // The landmark table of a grid file is built once and kept next to it
+        PathFinder pathFinder = engine.equals("ALT") && gridFile != null
+                ? new AStar(grid, metric, LandmarkTable.forGridFile(grid, Paths.get(gridFile), metric, LANDMARKS))
+                : createEngine(engine, grid, metric);
+        if (dump != null) {
+            if (!(pathFinder instanceof AStar)) {
+                throw new IllegalArgumentException("--dump needs the AStar or ALT engine: " + engine);
+            }
+            if (!grid.contains(dumpQuery[0], dumpQuery[1]) || !grid.contains(dumpQuery[2], dumpQuery[3])) {
+                throw new IllegalArgumentException("Query outside the grid: " + Arrays.toString(dumpQuery));
+            }
+            SearchDump searchDump = ((AStar) pathFinder).dump(dumpQuery[0], dumpQuery[1], dumpQuery[2], dumpQuery[3]);
+            if (dump.endsWith(".png")) {
+                searchDump.writePng(Paths.get(dump), SearchDump.Field.F);
+            } else {
+                searchDump.write(Paths.get(dump));
+            }
+        }
+        SearchMetrics metrics = null;
+        if (stats) {
+            if (!(pathFinder instanceof AStar)) {
+                throw new IllegalArgumentException("--stats needs the AStar or ALT engine: " + engine);
+            }
+            metrics = new SearchMetrics();
+            ((AStar) pathFinder).setMetrics(metrics);
+            try {
+                metrics.register(engine);
+            } catch (JMException e) {
+                throw new IllegalStateException("Can't register the search metrics", e);
+            }
+        }
+        PathCache cache = null;
+        if (cacheSize > 0) {
+            PathFinder uncached = pathFinder;
+            cache = new PathCache(grid, cacheSize, Long.MAX_VALUE, m -> uncached);
+            pathFinder = cache.forMetric(metric);
+        }
+        PathService service = new PathService(pathFinder, new ForkJoinPool(threads));
+
+        InputStream in = queries == null ? System.in : new FileInputStream(queries);
+        try {
+            run(service, grid, new IntReader(in),
+                    new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16)));
+        } finally {
+            in.close();
+        }
+        if (cache != null) {
+            System.err.println("cache hits " + cache.getHits() + " misses " + cache.getMisses()
+                    + " evictions " + cache.getEvictions());
+        }
+        if (metrics != null) {
+            System.err.println(metrics);
+        }
+    }
+
+    /**
+     * Checks an option is followed by its values.
+     *
+     * @param args The arguments
+     * @param k Position of the option
+     * @param count Number of values the option takes
+     * @return The first value of the option
+     */
+    private static String value(String[] args, int k, int count) {
+        if (k + count >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[k]);
+        }
+        return args[k + 1];
+    }
+
+    /**
+     * @return The engine with the given name
+     */
+    static PathFinder createEngine(String engine, Grid grid, String metric) {
+        switch (engine) {
+            case "AStar": return new AStar(grid, metric);
+            case "ALT": return new AStar(grid, metric, new LandmarkTable(grid, metric, LANDMARKS));
+            case "Bidirectional": return new BidirectionalAStar(grid, metric);
+            case "JPS": return new JumpPointSearch(grid, metric, false);
+            case "JPS+": return new JumpPointSearch(grid, metric, true);
+            case "HPA": return new HierarchicalPathFinder(grid, metric, 32);
+            default: throw new IllegalArgumentException("Unknown engine: " + engine);
+        }
+    }
+
+    /**
+     * Answers the queries chunk by chunk and writes the results in input order.
+     */
+    private static void run(PathService service, Grid grid, IntReader in, PrintWriter out) throws IOException {
+        List<PathQuery> chunk = new ArrayList<PathQuery>(CHUNK);
+        while (true) {
+            chunk.clear();
+            while (chunk.size() < CHUNK && in.hasNext()) {
+                PathQuery query = new PathQuery(in.nextInt(), in.nextInt(), in.nextInt(), in.nextInt());
+                if (!grid.contains(query.getStartI(), query.getStartJ()) || !grid.contains(query.getGoalI(), query.getGoalJ())) {
+                    throw new IllegalArgumentException("Query outside the grid: " + query);
+                }
+                chunk.add(query);
+            }
+            if (chunk.isEmpty()) {
+                break;
+            }
+            for (PathResult result : service.measureAll(chunk)) {
+                PathQuery query = result.getQuery();
+                out.print(query.getStartI());
+                out.print(' ');
+                out.print(query.getStartJ());
+                out.print(' ');
+                out.print(query.getGoalI());
+                out.print(' ');
+                out.print(query.getGoalJ());
+                out.print(' ');
+                if (result.isFound()) {
+                    printCost(out, result.getCost());
+                } else {
+                    out.print(-1);
+                }
+                out.print(' ');
+                out.println(result.getLength());
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Writes a cost with two decimals as "%.2f" does, without going through a Formatter. The costs are
+     * sums of steps with at most one decimal, so rounding the hundredths never meets a tie.
+     */
+    private static void printCost(PrintWriter out, double cost) {
+        long hundredths = Math.round(cost * 100);
+        out.print(hundredths / 100);
+        out.print('.');
+        int fraction = (int) (hundredths % 100);
+        if (fraction < 10) {
+            out.print('0');
+        }
+        out.print(fraction);
+    }
+
+    /**
+     * Reads a grid in the StdArrayIO boolean matrix format ( rows, columns, then 0 or 1 per cell ).
+     *
+     * @param file Path of the grid file
+     * @return The grid, any value above 0 marking a walkable cell of that cost
+     */
+    static Grid readGrid(String file) throws IOException {
+        InputStream stream = new FileInputStream(file);
+        try {
+            IntReader in = new IntReader(stream);
+            int rows = in.nextInt();
+            int columns = in.nextInt();
+            Grid grid = new BitGrid(rows, columns);
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < columns; j++) {
+                    int cost = in.nextInt();
+                    if (cost != 0) {
+                        grid.setOpen(i, j, true);
+                        grid.setCost(i, j, cost);
+                    }
+                }
+            }
+            return grid;
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Minimal whitespace separated integer reader, much faster than Scanner on large inputs.
+     */
+    static class IntReader {
+
+        private final InputStream in;
+        private int next = -2; //next unread byte, -2 before the first read
+
+        IntReader(InputStream in) {
+            this.in = new BufferedInputStream(in, 1 << 16);
+        }
+
+        boolean hasNext() throws IOException {
+            if (next == -2) next = in.read();
+            while (next != -1 && Character.isWhitespace(next)) next = in.read();
+            return next != -1;
+        }
+
+        int nextInt() throws IOException {
+            if (!hasNext()) {
+                throw new IOException("Unexpected end of input");
+            }
+            boolean negative = next == '-';
+            if (negative) next = in.read();
+            int value = 0;
+            if (next < '0' || next > '9') {
+                throw new IOException("Not a number: " + (char) next);
+            }
+            while (next >= '0' && next <= '9') {
+                value = value * 10 + (next - '0');
+                next = in.read();
+            }
+            return negative ? -value : value;
+        }
+    }
+}
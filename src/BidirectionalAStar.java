@@ -0,0 +1,207 @@
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ *
+ * Bidirectional A*. A forward search from the start and a backward search from the goal are expanded
+ * alternately, always advancing the one with the smaller open list. Every cell discovered by both
+ * searches gives a candidate path and the search stops once the cheapest open cell of either side can't
+ * lead to a cheaper one. Moves on the grid cost the same in both directions, so both searches use the
+ * same neighbours and costs as AStar and the paths have the same cost. On weighted terrain the backward
+ * search pays for the cell a move leaves instead of the one it enters, which is the cost of the same move
+ * made forwards.
+ *
+ * Queries between different components of the grid are rejected before searching.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class BidirectionalAStar implements PathFinder {
+
+    // Row and column offsets of the adjacent cells, in the same order as AStar
+    private static final int[] DI = {-1, 1, 0, 0, -1, -1, 1, 1};
+    private static final int[] DJ = {0, 0, -1, 1, -1, 1, -1, 1};
+
+    private final int rows; //number of rows of the matrix
+    private final int columns; //number of columns of the matrix, the stride of the cell indices
+    private final Grid grid; //bitmap of the walkable cells on the grid
+    private final Heuristic heuristic; //estimate of the cost to the target, chosen once for the metric
+    private final double diagonalCost;
+    private final int directions; //4 for Manhattan, 8 when diagonal moves are allowed
+
+    /**
+     * @param grid The grid to be searched
+     * @param metric The distance measurement type
+     */
+    public BidirectionalAStar(Grid grid, String metric)
+    {
+        this.rows = grid.getRows();
+        this.columns = grid.getColumns();
+        this.grid = grid;
+        this.heuristic = Heuristic.forMetric(metric);
+
+        diagonalCost = Heuristic.diagonalCost(metric);
+        directions = Heuristic.directions(metric);
+    }
+
+    @Override
+    public List<Node> findPath(int startI, int startJ, int goalI, int goalJ)
+    {
+        // If our start position is the same as our goal position returns an empty list
+        if (startI == goalI && startJ == goalJ)
+        {
+            return new LinkedList<Node>();
+        }
+
+        int start = grid.index(startI, startJ);
+        int goal = grid.index(goalI, goalJ);
+
+        // If the goal lies in another component no path exists
+        if (!grid.mayConnect(start, goal, directions == 8))
+        {
+            return new LinkedList<Node>();
+        }
+
+        SearchContext forward = SearchContext.forGrid(grid, 0);
+        SearchContext backward = SearchContext.forGrid(grid, 1);
+
+        boolean weighted = grid.hasCosts();
+        double scale = weighted ? grid.getMinCost() : 1.0; //keeps the heuristic admissible on weighted terrain
+
+        forward.discover(start, -1, 0, (float) (scale * heuristic(start, goalI, goalJ)));
+        backward.discover(goal, -1, 0, (float) (scale * heuristic(goal, startI, startJ)));
+
+        double best = Double.POSITIVE_INFINITY; //cost of the cheapest path found so far
+        int meeting = -1; //cell where the cheapest path found so far joins both searches
+
+        while (!forward.openList.isEmpty() && !backward.openList.isEmpty())
+        {
+            // Neither side can improve on the best path any more
+            if (forward.openList.peekKey() >= best || backward.openList.peekKey() >= best)
+            {
+                break;
+            }
+
+            boolean expandForward = forward.openList.size() <= backward.openList.size();
+            SearchContext side = expandForward ? forward : backward;
+            SearchContext other = expandForward ? backward : forward;
+            int targetI = expandForward ? goalI : startI;
+            int targetJ = expandForward ? goalJ : startJ;
+
+            int current = side.openList.poll();
+            int i = current / columns;
+            int j = current % columns;
+            for (int d = 0; d < directions; d++)
+            {
+                int adjacentI = i + DI[d];
+                int adjacentJ = j + DJ[d];
+                if (adjacentI < 0 || adjacentI >= rows || adjacentJ < 0 || adjacentJ >= columns)
+                {
+                    continue;
+                }
+                int adjacent = current + DI[d] * columns + DJ[d];
+                if (!grid.isOpen(adjacent))
+                {
+                    continue;
+                }
+
+                double step = d < 4 ? 1.0 : diagonalCost;
+                if (weighted)
+                {
+                    step *= grid.getCost(expandForward ? adjacent : current);
+                }
+                double adjacentG = side.getG(current) + step;
+                if (!side.isDiscovered(adjacent))
+                {
+                    side.discover(adjacent, current, adjacentG,
+                            (float) (scale * heuristic(adjacent, targetI, targetJ)));
+                }
+                else if (side.openList.contains(adjacent) && side.getG(adjacent) > adjacentG)
+                {
+                    side.improve(adjacent, current, adjacentG);
+                }
+                else
+                {
+                    continue;
+                }
+
+                // The other search has reached this cell too, which joins the two halves of a path
+                if (other.isDiscovered(adjacent) && adjacentG + other.getG(adjacent) < best)
+                {
+                    best = adjacentG + other.getG(adjacent);
+                    meeting = adjacent;
+                }
+            }
+        }
+
+        forward.openList.clear();
+        backward.openList.clear();
+
+        if (meeting < 0)
+        {
+            // No path exists, return an empty list.
+            return new LinkedList<Node>();
+        }
+        return calcPath(forward, backward, start, meeting);
+    }
+
+    /**
+     * Joins the forward path from the start to the meeting cell with the backward path from the meeting
+     * cell to the goal.
+     *
+     * @return a list containing all of the visited nodes, from the start to the goal ( the start node
+     *         itself is the parent of the first node ).
+     */
+    private List<Node> calcPath(SearchContext forward, SearchContext backward, int start, int meeting)
+    {
+        LinkedList<Node> path = new LinkedList<Node>();
+
+        // Forward half, walked back from the meeting cell
+        Node child = null;
+        Node meetingNode = null;
+        for (int cell = meeting; cell != start; cell = forward.getParent(cell))
+        {
+            Node node = new Node(cell / columns, cell % columns, true);
+            node.g = forward.getG(cell);
+            if (child != null)
+            {
+                child.setParent(node);
+            }
+            else
+            {
+                meetingNode = node;
+            }
+            path.addFirst(node);
+            child = node;
+        }
+        Node startNode = new Node(start / columns, start % columns, true);
+        if (child != null)
+        {
+            child.setParent(startNode);
+        }
+
+        // Backward half, the parents of the backward search lead towards the goal
+        Node previous = meetingNode != null ? meetingNode : startNode;
+        double meetingG = forward.getG(meeting);
+        double meetingToGoal = backward.getG(meeting);
+        for (int cell = backward.getParent(meeting); cell >= 0; cell = backward.getParent(cell))
+        {
+            Node node = new Node(cell / columns, cell % columns, true);
+            node.g = meetingG + meetingToGoal - backward.getG(cell);
+            node.setParent(previous);
+            path.add(node);
+            previous = node;
+        }
+        return path;
+    }
+
+    /**
+     * Consistent estimate of the cost between a cell and a target for the selected metric.
+     */
+    private double heuristic(int cell, int targetI, int targetJ)
+    {
+        return heuristic.estimate(Math.abs(cell / columns - targetI), Math.abs(cell % columns - targetJ));
+    }
+}
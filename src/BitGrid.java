@@ -0,0 +1,144 @@
+import java.util.Arrays;
+
+/**
+ *
+ * Grid stored on the heap as a bitmap of walkable cells. Cell (i, j) is bit i * columns + j, so the grid takes
+ * one bit per cell instead of one Node object per cell. Terrain costs take one more byte per cell, in an
+ * array indexed like the bitmap that is only allocated once a cost is set.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class BitGrid extends Grid {
+
+    private final long[] open; //one bit per cell, set when the cell is not blocked
+    private byte[] costs; //unsigned cost of every cell, null while every cell costs 1
+    private int minCost = 1; //lowest cost of any cell, 0 when it has to be recomputed
+
+    /**
+     * Creates an NxN grid with every cell blocked
+     *
+     * @param N Size of the matrix
+     */
+    public BitGrid(int N)
+    {
+        this(N, N);
+    }
+
+    /**
+     * Creates a grid with every cell blocked
+     *
+     * @param rows Number of rows of the matrix
+     * @param columns Number of columns of the matrix
+     */
+    public BitGrid(int rows, int columns)
+    {
+        super(rows, columns);
+        this.open = new long[wordCount()];
+    }
+
+    /**
+     * Wraps an already filled bitmap, cells past the end of the grid must be 0.
+     *
+     * @param rows Number of rows of the matrix
+     * @param columns Number of columns of the matrix
+     * @param open The bitmap, one bit per cell set when the cell is not blocked
+     */
+    BitGrid(int rows, int columns, long[] open)
+    {
+        super(rows, columns);
+        if (open.length != wordCount())
+        {
+            throw new IllegalArgumentException("Bitmap of " + open.length + " words for " + wordCount());
+        }
+        this.open = open;
+    }
+
+    @Override
+    public boolean isOpen(int cell)
+    {
+        return (open[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    @Override
+    public long getWord(int k)
+    {
+        return open[k];
+    }
+
+    @Override
+    public void setOpen(int i, int j, boolean notBlocked)
+    {
+        int cell = index(i, j);
+        if (isOpen(cell) == notBlocked)
+        {
+            return;
+        }
+        if (notBlocked)
+        {
+            open[cell >>> 6] |= 1L << cell;
+        }
+        else
+        {
+            open[cell >>> 6] &= ~(1L << cell);
+        }
+        cellChanged(cell, notBlocked);
+    }
+
+    @Override
+    public boolean hasCosts()
+    {
+        return costs != null;
+    }
+
+    @Override
+    public int getCost(int cell)
+    {
+        return costs == null ? 1 : costs[cell] & 0xFF;
+    }
+
+    @Override
+    public int getMinCost()
+    {
+        if (minCost == 0)
+        {
+            int min = 255;
+            for (byte cost : costs)
+            {
+                min = Math.min(min, cost & 0xFF);
+            }
+            minCost = min;
+        }
+        return minCost;
+    }
+
+    @Override
+    public void setCost(int i, int j, int cost)
+    {
+        if (cost < 1 || cost > 255)
+        {
+            throw new IllegalArgumentException("Cost out of range: " + cost);
+        }
+        int cell = index(i, j);
+        if (costs == null)
+        {
+            if (cost == 1)
+            {
+                return;
+            }
+            costs = new byte[cellCount()];
+            Arrays.fill(costs, (byte) 1);
+        }
+        if (cost < minCost)
+        {
+            minCost = cost;
+        }
+        else if (getCost(cell) == minCost && cost > minCost)
+        {
+            minCost = 0;
+        }
+        costs[cell] = (byte) cost;
+    }
+}
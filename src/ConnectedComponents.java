@@ -0,0 +1,279 @@
+import java.util.Arrays;
+
+/**
+ *
+ * Connected component labelling of the walkable cells of a grid. Every walkable cell gets the label of
+ * its component ( blocked cells get 0 ), so two cells are connected exactly when their labels match and
+ * a query between different components can be rejected without searching.
+ *
+ * The labels are computed with a two pass scan and a union-find over the provisional labels, with no
+ * recursion, so it works on grids of any size in time proportional to the cell count. The labels of a
+ * grid kept outside the heap ( see Grid.isOffHeap ) are kept outside it too.
+ *
+ * A cell opened after the scan is added in place ( see open ) : it joins the components of its walkable
+ * neighbours through a union-find over the labels, so the labelling stays exact without a new scan.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class ConnectedComponents {
+
+    private final int[] labels; //component of every cell, 0 for blocked cells, null when kept off the heap
+    private final OffHeapArray offHeapLabels; //the labels of an off-heap grid, null for other grids
+    private final boolean diagonal; //true if diagonal moves connect cells
+    private int count; //number of components
+    private int labelCount; //highest label given, the labels run from 1 to it
+    private int[] merged; //union-find forest over the labels joined by opened cells, null until the first join
+    private byte[] rank; //upper bound of the height of every tree of the forest
+
+    /**
+     * Labels the walkable cells of a grid.
+     *
+     * @param grid The grid to be labelled
+     * @param diagonal True if diagonal moves connect cells ( every metric except Manhattan )
+     */
+    public ConnectedComponents(Grid grid, boolean diagonal)
+    {
+        int rows = grid.getRows();
+        int columns = grid.getColumns();
+        this.diagonal = diagonal;
+        labels = grid.isOffHeap() ? null : new int[grid.cellCount()];
+        offHeapLabels = grid.isOffHeap() ? new OffHeapArray(grid.cellCount(), 4) : null;
+        int[] parent = new int[64]; //union-find forest over the provisional labels
+        int next = 1;
+
+        // First pass : give every cell the smallest label of its already scanned neighbours
+        for (int i = 0; i < rows; i++)
+        {
+            for (int j = 0; j < columns; j++)
+            {
+                int cell = grid.index(i, j);
+                if (!grid.isOpen(cell))
+                {
+                    continue;
+                }
+
+                int label = 0;
+                label = join(parent, label, j > 0 ? getLabel(cell - 1) : 0);
+                label = join(parent, label, i > 0 ? getLabel(cell - columns) : 0);
+                if (diagonal && i > 0)
+                {
+                    label = join(parent, label, j > 0 ? getLabel(cell - columns - 1) : 0);
+                    label = join(parent, label, j < columns - 1 ? getLabel(cell - columns + 1) : 0);
+                }
+
+                if (label == 0)
+                {
+                    if (next == parent.length)
+                    {
+                        parent = Arrays.copyOf(parent, next * 2);
+                    }
+                    parent[next] = next;
+                    label = next++;
+                }
+                setLabel(cell, label);
+            }
+        }
+
+        // Second pass : replace every provisional label with a compact component number
+        int[] component = new int[next];
+        int components = 0;
+        for (int cell = 0, cells = grid.cellCount(); cell < cells; cell++)
+        {
+            int label = getLabel(cell);
+            if (label != 0)
+            {
+                int root = find(parent, label);
+                if (component[root] == 0)
+                {
+                    component[root] = ++components;
+                }
+                setLabel(cell, component[root]);
+            }
+        }
+        count = components;
+        labelCount = components;
+    }
+
+    /**
+     * Adds a cell which was blocked when the grid was labelled and is now walkable, joining the
+     * components of its walkable neighbours. Must not be called while the labelling is being read.
+     *
+     * @param grid The labelled grid, with the cell already open
+     * @param cell Index of the cell
+     */
+    void open(Grid grid, int cell)
+    {
+        int columns = grid.getColumns();
+        int i = cell / columns;
+        int j = cell % columns;
+        int label = 0;
+        for (int di = -1; di <= 1; di++)
+        {
+            for (int dj = -1; dj <= 1; dj++)
+            {
+                if ((di != 0 || dj != 0) && (diagonal || di == 0 || dj == 0) && grid.contains(i + di, j + dj))
+                {
+                    label = union(label, getLabel(grid.index(i + di, j + dj)));
+                }
+            }
+        }
+
+        // A cell without walkable neighbours starts a component of its own
+        if (label == 0)
+        {
+            label = ++labelCount;
+            count++;
+            if (merged != null)
+            {
+                if (label == merged.length)
+                {
+                    grow(label * 2);
+                }
+                merged[label] = label;
+            }
+        }
+        setLabel(cell, label);
+    }
+
+    /**
+     * Joins the components of two root labels and returns the root of the result, 0 stands for no label.
+     * The lower tree is hung below the higher one, so getLabel walks at most log2 of the labels.
+     */
+    private int union(int a, int b)
+    {
+        if (a == 0 || a == b)
+        {
+            return b;
+        }
+        if (b == 0)
+        {
+            return a;
+        }
+        if (merged == null)
+        {
+            grow(labelCount + 1);
+        }
+        count--;
+        if (rank[a] < rank[b])
+        {
+            merged[a] = b;
+            return b;
+        }
+        if (rank[a] == rank[b])
+        {
+            rank[a]++;
+        }
+        merged[b] = a;
+        return a;
+    }
+
+    /**
+     * Creates or enlarges the forest over the labels, every new label being a root of its own.
+     */
+    private void grow(int size)
+    {
+        int from = merged == null ? 0 : merged.length;
+        merged = merged == null ? new int[size] : Arrays.copyOf(merged, size);
+        rank = rank == null ? new byte[size] : Arrays.copyOf(rank, size);
+        for (int label = from; label < size; label++)
+        {
+            merged[label] = label;
+        }
+    }
+
+    /**
+     * Merges two provisional labels and returns the root of the result, 0 stands for no label.
+     */
+    private static int join(int[] parent, int a, int b)
+    {
+        if (a == 0)
+        {
+            return b == 0 ? 0 : find(parent, b);
+        }
+        if (b == 0)
+        {
+            return a;
+        }
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA < rootB)
+        {
+            parent[rootB] = rootA;
+            return rootA;
+        }
+        parent[rootA] = rootB;
+        return rootB;
+    }
+
+    /**
+     * Finds the root of a provisional label, halving the path on the way.
+     */
+    private static int find(int[] parent, int label)
+    {
+        while (parent[label] != label)
+        {
+            parent[label] = parent[parent[label]];
+            label = parent[label];
+        }
+        return label;
+    }
+
+    /**
+     * @param cell Index of the cell
+     * @return The component of the cell, 0 if the cell is blocked
+     */
+    public int getLabel(int cell)
+    {
+        int label = labels != null ? labels[cell] : offHeapLabels.getInt(cell);
+        if (merged != null)
+        {
+            while (merged[label] != label)
+            {
+                label = merged[label];
+            }
+        }
+        return label;
+    }
+
+    private void setLabel(int cell, int label)
+    {
+        if (labels != null)
+        {
+            labels[cell] = label;
+        }
+        else
+        {
+            offHeapLabels.putInt(cell, label);
+        }
+    }
+
+    /**
+     * @param a Index of the first cell
+     * @param b Index of the second cell
+     * @return True if both cells are walkable and a path exists between them
+     */
+    public boolean isConnected(int a, int b)
+    {
+        int label = getLabel(a);
+        return label != 0 && label == getLabel(b);
+    }
+
+    /**
+     * @return The number of components
+     */
+    public int getCount()
+    {
+        return count;
+    }
+
+    /**
+     * @return The highest label, equal to getCount until an opened cell joins or starts components
+     */
+    public int getMaxLabel()
+    {
+        return labelCount;
+    }
+}
@@ -0,0 +1,543 @@
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ *
+ * Incremental search ( D* Lite ) for an agent that keeps replanning towards the same goal while it moves
+ * and the grid changes. The search runs backwards from the goal and its g and rhs values are kept
+ * between calls, so after a move or a few changed cells only the part of the search those changes affect
+ * is repaired instead of searching again from scratch. Changing the goal starts a new search.
+ *
+ * Cells must be changed through setOpen and setCost of this class so the search learns about them. An
+ * instance holds the state of a single agent and must not be used by several threads at once.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class DStarLite implements PathFinder {
+
+    // Row and column offsets of the adjacent cells, in the same order as AStar
+    private static final int[] DI = {-1, 1, 0, 0, -1, -1, 1, 1};
+    private static final int[] DJ = {0, 0, -1, 1, -1, 1, -1, 1};
+
+    // Relative tolerance of the key comparisons against the start's key
+    private static final double TOLERANCE = 1e-9;
+
+    private final int rows; //number of rows of the matrix
+    private final int columns; //number of columns of the matrix, the stride of the cell indices
+    private final Grid grid; //walkable cells and terrain costs of the grid
+    private final Heuristic heuristic; //estimate of the cost between two cells, chosen once for the metric
+    private final double diagonalCost;
+    private final int directions; //4 for Manhattan, 8 when diagonal moves are allowed
+
+    private final double[] g; //cost from every cell to the goal as of its last expansion
+    private final double[] rhs; //one step lookahead cost from every cell to the goal
+    private final int[] stamp; //generation stamp per cell, g and rhs are infinite for older stamps
+    private int generation; //incremented when a new search starts
+    private final KeyHeap openList; //inconsistent cells, keyed on ( min(g, rhs) + h + km, min(g, rhs) )
+
+    private int goal = -1; //goal of the current search, -1 before the first search
+    private int lastStart; //start the keys were last computed for
+    private double km; //sum of the heuristic distances the start moved by since the search began
+    private double scale; //cheapest terrain cost when the search began, scales the heuristic
+
+    private int[] changed = new int[16]; //cells changed since the last search
+    private int changedCount;
+    private boolean restart; //true when a change invalidates the keys and the search must start over
+
+    /**
+     * @param grid The grid to be searched
+     * @param metric The distance measurement type
+     */
+    public DStarLite(Grid grid, String metric)
+    {
+        this.rows = grid.getRows();
+        this.columns = grid.getColumns();
+        this.grid = grid;
+        this.heuristic = Heuristic.forMetric(metric);
+
+        diagonalCost = Heuristic.diagonalCost(metric);
+        directions = Heuristic.directions(metric);
+
+        int cellCount = grid.cellCount();
+        g = new double[cellCount];
+        rhs = new double[cellCount];
+        stamp = new int[cellCount];
+        openList = new KeyHeap(cellCount);
+    }
+
+    /**
+     * Calculates the shortest path from the agent's current cell to the goal. Repeated calls with the
+     * same goal reuse the previous search.
+     *
+     * @param startI Row number of the agent's current cell
+     * @param startJ Column number of the agent's current cell
+     * @param goalI Row number of the goal node
+     * @param goalJ Column number of the goal node
+     * @return A list of nodes to follow which gives the shortest distance to the goal
+     */
+    @Override
+    public List<Node> findPath(int startI, int startJ, int goalI, int goalJ)
+    {
+        if (startI == goalI && startJ == goalJ)
+        {
+            return new LinkedList<Node>();
+        }
+
+        int start = grid.index(startI, startJ);
+        int target = grid.index(goalI, goalJ);
+        if (target != goal || restart)
+        {
+            initialise(start, target);
+        }
+        else
+        {
+            // The keys in the open list were computed for the previous start, km keeps them lower bounds
+            km += heuristic(lastStart, start);
+            lastStart = start;
+
+            for (int k = 0; k < changedCount; k++)
+            {
+                int cell = changed[k];
+                updateVertex(cell);
+                int i = cell / columns;
+                int j = cell % columns;
+                for (int d = 0; d < directions; d++)
+                {
+                    if (grid.contains(i + DI[d], j + DJ[d]))
+                    {
+                        updateVertex(cell + DI[d] * columns + DJ[d]);
+                    }
+                }
+            }
+        }
+        changedCount = 0;
+
+        computeShortestPath(start);
+        return calcPath(start);
+    }
+
+    /**
+     * Sets if a cell is blocked. The search is repaired around the cell on the next call to findPath.
+     *
+     * @param i Row number of the cell
+     * @param j Column number of the cell
+     * @param notBlocked is this cell blocked or not
+     */
+    public void setOpen(int i, int j, boolean notBlocked)
+    {
+        if (grid.isOpen(i, j) != notBlocked)
+        {
+            grid.setOpen(i, j, notBlocked);
+            cellChanged(grid.index(i, j));
+        }
+    }
+
+    /**
+     * Sets the terrain cost of a cell. The search is repaired around the cell on the next call to
+     * findPath, or started over if the cell becomes cheaper than any cell was when the search began.
+     *
+     * @param i Row number of the cell
+     * @param j Column number of the cell
+     * @param cost The cost of moving into the cell, from 1 to 255
+     */
+    public void setCost(int i, int j, int cost)
+    {
+        int cell = grid.index(i, j);
+        if (grid.getCost(cell) != cost)
+        {
+            grid.setCost(i, j, cost);
+            if (cost < scale)
+            {
+                restart = true;
+            }
+            cellChanged(cell);
+        }
+    }
+
+    /**
+     * @return The cost of the path found by the last search, infinity if the goal can't be reached
+     */
+    public double getCost()
+    {
+        return goal < 0 ? Double.POSITIVE_INFINITY : getG(lastStart);
+    }
+
+    private void cellChanged(int cell)
+    {
+        if (changedCount == changed.length)
+        {
+            changed = Arrays.copyOf(changed, 2 * changed.length);
+        }
+        changed[changedCount++] = cell;
+    }
+
+    /**
+     * Forgets the previous search and starts a new one from the goal.
+     */
+    private void initialise(int start, int target)
+    {
+        openList.clear();
+        if (++generation == 0)
+        {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        goal = target;
+        lastStart = start;
+        km = 0;
+        scale = grid.getMinCost();
+        restart = false;
+
+        setRhs(goal, 0);
+        openList.add(goal, heuristic(start, goal), 0);
+    }
+
+    /**
+     * Expands inconsistent cells until the start is consistent and no cell in the open list can lower
+     * its cost.
+     */
+    private void computeShortestPath(int start)
+    {
+        while (!openList.isEmpty())
+        {
+            double startG = getG(start);
+            double startRhs = getRhs(start);
+            // Cells whose key ties with the start's are expanded too : the keys are sums of rounded step
+            // costs, so an exact tie may come out a few ulps above the start's key.
+            double startK1 = Math.min(startG, startRhs) + km;
+            if (openList.peekK1() > startK1 + TOLERANCE * (1 + startK1) && startRhs == startG)
+            {
+                break;
+            }
+
+            double oldK1 = openList.peekK1();
+            double oldK2 = openList.peekK2();
+            int u = openList.poll();
+            double gu = getG(u);
+            double rhsU = getRhs(u);
+            double k2 = Math.min(gu, rhsU);
+            double k1 = k2 + heuristic(start, u) + km;
+
+            if (oldK1 < k1 || (oldK1 == k1 && oldK2 < k2))
+            {
+                // The key was computed for an older start, put the cell back with its current key
+                openList.add(u, k1, k2);
+            }
+            else if (gu > rhsU)
+            {
+                setG(u, rhsU);
+                updateNeighbours(u);
+            }
+            else
+            {
+                setG(u, Double.POSITIVE_INFINITY);
+                updateVertex(u);
+                updateNeighbours(u);
+            }
+        }
+    }
+
+    private void updateNeighbours(int cell)
+    {
+        int i = cell / columns;
+        int j = cell % columns;
+        for (int d = 0; d < directions; d++)
+        {
+            if (grid.contains(i + DI[d], j + DJ[d]))
+            {
+                updateVertex(cell + DI[d] * columns + DJ[d]);
+            }
+        }
+    }
+
+    /**
+     * Recomputes the rhs value of a cell from its successors and puts the cell in the open list if it
+     * is inconsistent.
+     */
+    private void updateVertex(int cell)
+    {
+        if (cell != goal)
+        {
+            double best = Double.POSITIVE_INFINITY;
+            if (grid.isOpen(cell))
+            {
+                int i = cell / columns;
+                int j = cell % columns;
+                for (int d = 0; d < directions; d++)
+                {
+                    int adjacentI = i + DI[d];
+                    int adjacentJ = j + DJ[d];
+                    if (!grid.isOpen(adjacentI, adjacentJ))
+                    {
+                        continue;
+                    }
+                    int adjacent = cell + DI[d] * columns + DJ[d];
+                    double cost = (d < 4 ? 1.0 : diagonalCost) * grid.getCost(adjacent) + getG(adjacent);
+                    if (cost < best)
+                    {
+                        best = cost;
+                    }
+                }
+            }
+            setRhs(cell, best);
+        }
+
+        openList.remove(cell);
+        double gValue = getG(cell);
+        double rhsValue = getRhs(cell);
+        if (gValue != rhsValue)
+        {
+            double k2 = Math.min(gValue, rhsValue);
+            openList.add(cell, k2 + heuristic(lastStart, cell) + km, k2);
+        }
+    }
+
+    /**
+     * Follows the cheapest successors from the start to the goal.
+     *
+     * @return a list containing all of the visited nodes, from the start to the goal ( the start node
+     *         itself is the parent of the first node ).
+     */
+    private List<Node> calcPath(int start)
+    {
+        LinkedList<Node> path = new LinkedList<Node>();
+        if (getG(start) == Double.POSITIVE_INFINITY)
+        {
+            // No path exists, return an empty list.
+            return path;
+        }
+
+        Node previous = new Node(start / columns, start % columns, true);
+        double pathG = 0;
+        int cell = start;
+        for (int steps = 0; cell != goal && steps < grid.cellCount(); steps++)
+        {
+            int i = cell / columns;
+            int j = cell % columns;
+            int next = -1;
+            double best = Double.POSITIVE_INFINITY;
+            double nextStep = 0;
+            for (int d = 0; d < directions; d++)
+            {
+                if (!grid.isOpen(i + DI[d], j + DJ[d]))
+                {
+                    continue;
+                }
+                int adjacent = cell + DI[d] * columns + DJ[d];
+                double step = (d < 4 ? 1.0 : diagonalCost) * grid.getCost(adjacent);
+                if (step + getG(adjacent) < best)
+                {
+                    best = step + getG(adjacent);
+                    nextStep = step;
+                    next = adjacent;
+                }
+            }
+            if (next < 0)
+            {
+                return new LinkedList<Node>();
+            }
+
+            pathG += nextStep;
+            Node node = new Node(next / columns, next % columns, true);
+            node.g = pathG;
+            node.setParent(previous);
+            path.add(node);
+            previous = node;
+            cell = next;
+        }
+        return cell == goal ? path : new LinkedList<Node>();
+    }
+
+    private double getG(int cell)
+    {
+        return stamp[cell] == generation ? g[cell] : Double.POSITIVE_INFINITY;
+    }
+
+    private double getRhs(int cell)
+    {
+        return stamp[cell] == generation ? rhs[cell] : Double.POSITIVE_INFINITY;
+    }
+
+    private void setG(int cell, double value)
+    {
+        touch(cell);
+        g[cell] = value;
+    }
+
+    private void setRhs(int cell, double value)
+    {
+        touch(cell);
+        rhs[cell] = value;
+    }
+
+    private void touch(int cell)
+    {
+        if (stamp[cell] != generation)
+        {
+            stamp[cell] = generation;
+            g[cell] = Double.POSITIVE_INFINITY;
+            rhs[cell] = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Consistent estimate of the cost between two cells for the selected metric, scaled by the cheapest
+     * terrain cost.
+     */
+    private double heuristic(int from, int to)
+    {
+        return scale * heuristic.estimate(Math.abs(from / columns - to / columns), Math.abs(from % columns - to % columns));
+    }
+
+    /**
+     * Indexed binary min-heap of cells keyed on two doubles compared lexicographically, the layout of
+     * IntHeap with a second key.
+     */
+    private static final class KeyHeap {
+
+        private int[] cells = new int[16]; //cell indices in heap order
+        private double[] k1 = new double[16]; //primary key of the cell at the same heap position
+        private double[] k2 = new double[16]; //secondary key breaking ties of the primary key
+        private int size;
+        private final int[] position; //heap position of every cell, -1 when the cell is not in the heap
+
+        KeyHeap(int cellCount)
+        {
+            position = new int[cellCount];
+            Arrays.fill(position, -1);
+        }
+
+        void add(int cell, double key1, double key2)
+        {
+            if (size == cells.length)
+            {
+                cells = Arrays.copyOf(cells, size * 2);
+                k1 = Arrays.copyOf(k1, size * 2);
+                k2 = Arrays.copyOf(k2, size * 2);
+            }
+            siftUp(size++, cell, key1, key2);
+        }
+
+        double peekK1()
+        {
+            return k1[0];
+        }
+
+        double peekK2()
+        {
+            return k2[0];
+        }
+
+        int poll()
+        {
+            int top = cells[0];
+            removeAt(0);
+            return top;
+        }
+
+        void remove(int cell)
+        {
+            int k = position[cell];
+            if (k >= 0)
+            {
+                removeAt(k);
+            }
+        }
+
+        boolean isEmpty()
+        {
+            return size == 0;
+        }
+
+        void clear()
+        {
+            for (int k = 0; k < size; k++)
+            {
+                position[cells[k]] = -1;
+            }
+            size = 0;
+        }
+
+        private void removeAt(int k)
+        {
+            position[cells[k]] = -1;
+            size--;
+            if (k == size)
+            {
+                return;
+            }
+            int last = cells[size];
+            double last1 = k1[size];
+            double last2 = k2[size];
+            if (k > 0 && less(last1, last2, (k - 1) >>> 1))
+            {
+                siftUp(k, last, last1, last2);
+            }
+            else
+            {
+                siftDown(k, last, last1, last2);
+            }
+        }
+
+        private boolean less(double key1, double key2, int k)
+        {
+            return key1 < k1[k] || (key1 == k1[k] && key2 < k2[k]);
+        }
+
+        private void siftUp(int k, int cell, double key1, double key2)
+        {
+            while (k > 0)
+            {
+                int parent = (k - 1) >>> 1;
+                if (!less(key1, key2, parent))
+                {
+                    break;
+                }
+                move(parent, k);
+                k = parent;
+            }
+            place(k, cell, key1, key2);
+        }
+
+        private void siftDown(int k, int cell, double key1, double key2)
+        {
+            int half = size >>> 1;
+            while (k < half)
+            {
+                int child = 2 * k + 1;
+                int right = child + 1;
+                if (right < size && less(k1[right], k2[right], child))
+                {
+                    child = right;
+                }
+                if (!(k1[child] < key1 || (k1[child] == key1 && k2[child] < key2)))
+                {
+                    break;
+                }
+                move(child, k);
+                k = child;
+            }
+            place(k, cell, key1, key2);
+        }
+
+        private void move(int from, int to)
+        {
+            cells[to] = cells[from];
+            k1[to] = k1[from];
+            k2[to] = k2[from];
+            position[cells[to]] = to;
+        }
+
+        private void place(int k, int cell, double key1, double key2)
+        {
+            cells[k] = cell;
+            k1[k] = key1;
+            k2[k] = key2;
+            position[cell] = k;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ *
+ * Distances from one source cell to many cells, computed by a single Dijkstra sweep instead of one
+ * search per goal. The sweep either fills a full distance field of the grid or stops as soon as every
+ * requested goal is settled. Several sources are swept in parallel, each on the search state of its
+ * own worker thread.
+ *
+ * Cells are given by their index on the grid, distances follow the moves and costs of AStar and are
+ * infinite for cells that can't be reached.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class DistanceField {
+
+    // Row and column offsets of the adjacent cells, in the same order as AStar
+    private static final int[] DI = {-1, 1, 0, 0, -1, -1, 1, 1};
+    private static final int[] DJ = {0, 0, -1, 1, -1, 1, -1, 1};
+
+    private final int rows; //number of rows of the matrix
+    private final int columns; //number of columns of the matrix, the stride of the cell indices
+    private final Grid grid; //walkable cells and terrain costs of the grid
+    private final double diagonalCost;
+    private final int directions; //4 for Manhattan, 8 when diagonal moves are allowed
+
+    /**
+     * @param grid The grid to be searched
+     * @param metric The distance measurement type
+     */
+    public DistanceField(Grid grid, String metric)
+    {
+        this.rows = grid.getRows();
+        this.columns = grid.getColumns();
+        this.grid = grid;
+
+        diagonalCost = Heuristic.diagonalCost(metric);
+        directions = Heuristic.directions(metric);
+    }
+
+    /**
+     * @param source Index of the source cell
+     * @return The distance from the source to every cell
+     */
+    public float[] from(int source)
+    {
+        return field(source, false);
+    }
+
+    /**
+     * Same as from on grids without terrain costs, where every move costs the same both ways.
+     *
+     * @param target Index of the target cell
+     * @return The distance from every cell to the target
+     */
+    public float[] to(int target)
+    {
+        return field(target, true);
+    }
+
+    /**
+     * Fills the distance fields of several sources in parallel.
+     *
+     * @param sources Indices of the source cells
+     * @return The distance field of every source, in the same order
+     */
+    public float[][] from(int[] sources)
+    {
+        float[][] fields = new float[sources.length][];
+        IntStream.range(0, sources.length).parallel().forEach(k -> fields[k] = from(sources[k]));
+        return fields;
+    }
+
+    /**
+     * Computes the distances from a source to some goals, stopping once every reachable goal is settled.
+     *
+     * @param source Index of the source cell
+     * @param goals Indices of the goal cells
+     * @return The distance to every goal, in the same order
+     */
+    public double[] from(int source, int[] goals)
+    {
+        double[] distances = new double[goals.length];
+        if (!grid.isOpen(source))
+        {
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            return distances;
+        }
+
+        SearchContext context = sweep(source, goals);
+        for (int k = 0; k < goals.length; k++)
+        {
+            distances[k] = context.isDiscovered(goals[k]) ? context.getG(goals[k]) : Double.POSITIVE_INFINITY;
+        }
+        return distances;
+    }
+
+    /**
+     * Computes the distances from several sources to the same goals in parallel.
+     *
+     * @param sources Indices of the source cells
+     * @param goals Indices of the goal cells
+     * @return The distances from source k to goal g at [k][g]
+     */
+    public double[][] from(int[] sources, int[] goals)
+    {
+        double[][] distances = new double[sources.length][];
+        IntStream.range(0, sources.length).parallel().forEach(k -> distances[k] = from(sources[k], goals));
+        return distances;
+    }
+
+    /**
+     * Finds the goal closest to a source, the sweep stopping at the first goal it settles.
+     *
+     * @param source Index of the source cell
+     * @param goals Indices of the goal cells
+     * @return The position of the nearest goal in goals, -1 if none can be reached
+     */
+    public int nearest(int source, int[] goals)
+    {
+        int[] sorted = reachable(source, goals);
+        if (sorted.length == 0 || !grid.isOpen(source))
+        {
+            return -1;
+        }
+
+        SearchContext context = SearchContext.forGrid(grid);
+        context.discover(source, -1, 0, 0);
+        while (!context.openList.isEmpty())
+        {
+            int current = context.openList.poll();
+            if (Arrays.binarySearch(sorted, current) >= 0)
+            {
+                context.openList.clear();
+                for (int k = 0; k < goals.length; k++)
+                {
+                    if (goals[k] == current)
+                    {
+                        return k;
+                    }
+                }
+            }
+            expand(context, current, false);
+        }
+        return -1;
+    }
+
+    /**
+     * Sweeps the whole component of a cell.
+     *
+     * @param backward True for the distances from every cell to the source instead of from it
+     */
+    float[] field(int source, boolean backward)
+    {
+        float[] field = new float[grid.cellCount()];
+        if (!grid.isOpen(source))
+        {
+            Arrays.fill(field, Float.POSITIVE_INFINITY);
+            return field;
+        }
+
+        SearchContext context = SearchContext.forGrid(grid);
+        context.discover(source, -1, 0, 0);
+        while (!context.openList.isEmpty())
+        {
+            expand(context, context.openList.poll(), backward);
+        }
+
+        for (int cell = 0; cell < field.length; cell++)
+        {
+            field[cell] = context.isDiscovered(cell) ? (float) context.getG(cell) : Float.POSITIVE_INFINITY;
+        }
+        return field;
+    }
+
+    /**
+     * Sweeps from a walkable source until every reachable goal has left the open list.
+     *
+     * @return The calling thread's search context holding the distances of the goals
+     */
+    private SearchContext sweep(int source, int[] goals)
+    {
+        int[] sorted = reachable(source, goals);
+        int remaining = sorted.length;
+
+        SearchContext context = SearchContext.forGrid(grid);
+        context.discover(source, -1, 0, 0);
+        while (remaining > 0 && !context.openList.isEmpty())
+        {
+            int current = context.openList.poll();
+            if (Arrays.binarySearch(sorted, current) >= 0)
+            {
+                remaining--;
+            }
+            expand(context, current, false);
+        }
+        context.openList.clear();
+        return context;
+    }
+
+    /**
+     * @return The distinct goals which may lie in the source's component, sorted
+     */
+    private int[] reachable(int source, int[] goals)
+    {
+        int[] sorted = new int[goals.length];
+        int count = 0;
+        for (int goal : goals)
+        {
+            if (grid.mayConnect(source, goal, directions == 8))
+            {
+                sorted[count++] = goal;
+            }
+        }
+        Arrays.sort(sorted, 0, count);
+        int distinct = 0;
+        for (int k = 0; k < count; k++)
+        {
+            if (distinct == 0 || sorted[distinct - 1] != sorted[k])
+            {
+                sorted[distinct++] = sorted[k];
+            }
+        }
+        return Arrays.copyOf(sorted, distinct);
+    }
+
+    /**
+     * Relaxes the moves out of a settled cell ( or into it, backwards ).
+     */
+    private void expand(SearchContext context, int current, boolean backward)
+    {
+        int i = current / columns;
+        int j = current % columns;
+        for (int d = 0; d < directions; d++)
+        {
+            if (!grid.isOpen(i + DI[d], j + DJ[d]))
+            {
+                continue;
+            }
+            int adjacent = current + DI[d] * columns + DJ[d];
+            double step = (d < 4 ? 1.0 : diagonalCost) * grid.getCost(backward ? current : adjacent);
+            double adjacentG = context.getG(current) + step;
+            if (!context.isDiscovered(adjacent))
+            {
+                context.discover(adjacent, current, adjacentG, 0);
+            }
+            else if (context.openList.contains(adjacent) && context.getG(adjacent) > adjacentG)
+            {
+                context.improve(adjacent, current, adjacentG);
+            }
+        }
+    }
+}
@@ -0,0 +1,350 @@
+/**
+ *
+ * Grid of walkable and blocked cells with any number of rows and columns. Cell (i, j) has the index
+ * i * columns + j, and the storage is sized to the real cell count. The storage of the cells
+ * is left to the subclasses : BitGrid keeps a bitmap on the heap, OffHeapGrid keeps one outside it and
+ * MappedGrid reads a memory-mapped grid file, and every search engine works with any of them.
+ *
+ * A walkable cell may also carry a terrain cost from 1 to 255. Moving into a cell costs the metric's
+ * step cost times the cost of the cell, every cell costing 1 unless costs were set.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public abstract class Grid {
+
+    protected final int rows; //number of rows of the matrix
+    protected final int columns; //number of columns of the matrix, the stride of the cell indices
+
+    //lazily built component labelling for 4 and 8 connected moves, kept up to date as cells open
+    private volatile ConnectedComponents fourConnected;
+    private volatile ConnectedComponents eightConnected;
+    private volatile boolean componentsStale; //set when a cell was blocked, the labelling may join split components
+
+    /**
+     * @param rows Number of rows of the matrix
+     * @param columns Number of columns of the matrix
+     */
+    protected Grid(int rows, int columns)
+    {
+        if (rows < 1 || columns < 1 || (long) rows * columns > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("Unsupported grid size: " + rows + "x" + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Builds a grid from a boolean matrix the same way Main.show does.
+     *
+     * @param a The boolean matrix, every row of the same length
+     * @param which The value that marks a cell as not blocked
+     * @return The grid
+     */
+    public static Grid fromMatrix(boolean[][] a, boolean which)
+    {
+        Grid grid = new BitGrid(a.length, a[0].length);
+        for (int i = 0; i < a.length; i++)
+        {
+            for (int j = 0; j < a[i].length; j++)
+            {
+                if (a[i][j] == which)
+                {
+                    grid.setOpen(i, j, true);
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Builds a grid from the blocked state of a matrix of nodes.
+     *
+     * @param nodes The matrix of nodes, every row of the same length
+     * @return The grid
+     */
+    public static Grid fromNodes(Node[][] nodes)
+    {
+        Grid grid = new BitGrid(nodes.length, nodes[0].length);
+        for (int i = 0; i < nodes.length; i++)
+        {
+            for (int j = 0; j < nodes[i].length; j++)
+            {
+                if (nodes[i][j].isNotBlocked())
+                {
+                    grid.setOpen(i, j, true);
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Parses a grid size given as "N" for N x N cells or "RxC" for R rows of C columns.
+     *
+     * @param value The size
+     * @return The { rows, columns } of the size
+     */
+    public static int[] parseSize(String value)
+    {
+        String size = value.trim();
+        if (size.matches("\\d+(x\\d+)?"))
+        {
+            try
+            {
+                String[] sides = size.split("x");
+                int rows = Integer.parseInt(sides[0]);
+                int columns = sides.length > 1 ? Integer.parseInt(sides[1]) : rows;
+                if (rows > 0 && columns > 0)
+                {
+                    return new int[]{rows, columns};
+                }
+            }
+            catch (NumberFormatException e)
+            {
+                // Too many digits for an int, rejected below
+            }
+        }
+        throw new IllegalArgumentException("Grid size must be N or RxC with positive sides: " + value);
+    }
+
+    /**
+     * @return The number of rows of the matrix
+     */
+    public int getRows()
+    {
+        return rows;
+    }
+
+    /**
+     * @return The number of columns of the matrix
+     */
+    public int getColumns()
+    {
+        return columns;
+    }
+
+    /**
+     * @return The number of cells in the grid
+     */
+    public int cellCount()
+    {
+        return rows * columns;
+    }
+
+    /**
+     * @param i Row number of the cell
+     * @param j Column number of the cell
+     * @return The index of the cell
+     */
+    public int index(int i, int j)
+    {
+        return i * columns + j;
+    }
+
+    /**
+     * @param i Row number of the cell
+     * @param j Column number of the cell
+     * @return True if the cell lies within the grid
+     */
+    public boolean contains(int i, int j)
+    {
+        return i >= 0 && i < rows && j >= 0 && j < columns;
+    }
+
+    /**
+     * @param cell Index of the cell
+     * @return True if the cell is not blocked
+     */
+    public abstract boolean isOpen(int cell);
+
+    /**
+     * @param i Row number of the cell
+     * @param j Column number of the cell
+     * @return True if the cell lies within the grid and is not blocked
+     */
+    public boolean isOpen(int i, int j)
+    {
+        return contains(i, j) && isOpen(i * columns + j);
+    }
+
+    /**
+     * @return True if the searches of the grid keep their state and component labels outside the Java
+     *         heap, as OffHeapGrid does. Off-heap state is slower to access than arrays, so a grid only
+     *         asks for it when it is meant for maps too large for the heap.
+     */
+    public boolean isOffHeap()
+    {
+        return false;
+    }
+
+    /**
+     * @return True if the cells carry terrain costs, false if every cell costs 1
+     */
+    public boolean hasCosts()
+    {
+        return false;
+    }
+
+    /**
+     * @param cell Index of the cell
+     * @return The cost of moving into the cell
+     */
+    public int getCost(int cell)
+    {
+        return 1;
+    }
+
+    /**
+     * @return The lowest cost of any cell, used to scale the heuristics so they stay admissible
+     */
+    public int getMinCost()
+    {
+        return 1;
+    }
+
+    /**
+     * Sets the terrain cost of a cell. Must not be called while the grid is being searched.
+     *
+     * @param i Row number of the cell
+     * @param j Column number of the cell
+     * @param cost The cost of moving into the cell, from 1 to 255
+     */
+    public void setCost(int i, int j, int cost)
+    {
+        throw new UnsupportedOperationException(getClass().getName() + " has no writable costs");
+    }
+
+    /**
+     * Returns 64 cells packed in a long, bit b standing for cell 64 * k + b ( 1 when not blocked ). Cells
+     * past the end of the grid read as blocked.
+     *
+     * @param k Index of the word
+     * @return The packed cells
+     */
+    public long getWord(int k)
+    {
+        long word = 0;
+        int first = k << 6;
+        int last = Math.min(cellCount(), first + 64);
+        for (int cell = first; cell < last; cell++)
+        {
+            if (isOpen(cell))
+            {
+                word |= 1L << cell;
+            }
+        }
+        return word;
+    }
+
+    /**
+     * @return The number of 64 cell words covering the grid
+     */
+    public int wordCount()
+    {
+        return (int) (((long) cellCount() + 63) >>> 6);
+    }
+
+    /**
+     * Returns the component labelling of the walkable cells, building it on first use. Opened cells are
+     * added to the labelling in place, while blocking a cell leaves it stale until the next call to this
+     * method rebuilds it.
+     *
+     * @param diagonal True if diagonal moves connect cells ( every metric except Manhattan )
+     * @return The connected components of the grid
+     */
+    public ConnectedComponents getComponents(boolean diagonal)
+    {
+        if (componentsStale)
+        {
+            synchronized (this)
+            {
+                if (componentsStale)
+                {
+                    fourConnected = null;
+                    eightConnected = null;
+                    componentsStale = false;
+                }
+            }
+        }
+        ConnectedComponents components = diagonal ? eightConnected : fourConnected;
+        if (components == null)
+        {
+            synchronized (this)
+            {
+                components = diagonal ? eightConnected : fourConnected;
+                if (components == null)
+                {
+                    components = new ConnectedComponents(this, diagonal);
+                    if (diagonal)
+                    {
+                        eightConnected = components;
+                    }
+                    else
+                    {
+                        fourConnected = components;
+                    }
+                }
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Pre-check of the searches, false when no path can exist between two cells. Once a cell was blocked
+     * the labelling is not rebuilt here, on the query path : any two walkable cells may be connected
+     * until getComponents is called again.
+     *
+     * @param a Index of the first cell
+     * @param b Index of the second cell
+     * @param diagonal True if diagonal moves connect cells ( every metric except Manhattan )
+     * @return False if either cell is blocked or the cells lie in different components
+     */
+    public boolean mayConnect(int a, int b, boolean diagonal)
+    {
+        if (!isOpen(a) || !isOpen(b))
+        {
+            return false;
+        }
+        return componentsStale || getComponents(diagonal).isConnected(a, b);
+    }
+
+    /**
+     * Sets if the cell is not blocked and can be walked through. Must not be called while the grid is
+     * being searched.
+     *
+     * @param i Row number of the cell
+     * @param j Column number of the cell
+     * @param notBlocked is this cell blocked or not
+     */
+    public abstract void setOpen(int i, int j, boolean notBlocked);
+
+    /**
+     * Updates everything derived from the cells, to be called by the subclasses when a cell was opened
+     * or blocked. An opened cell joins the labellings already built, a blocked one marks them stale.
+     *
+     * @param cell Index of the cell
+     * @param notBlocked The new state of the cell, different from the previous one
+     */
+    protected void cellChanged(int cell, boolean notBlocked)
+    {
+        if (!notBlocked)
+        {
+            componentsStale = true;
+        }
+        else if (!componentsStale)
+        {
+            if (fourConnected != null)
+            {
+                fourConnected.open(this, cell);
+            }
+            if (eightConnected != null)
+            {
+                eightConnected.open(this, cell);
+            }
+        }
+    }
+}
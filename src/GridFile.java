@@ -0,0 +1,143 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ *
+ * Binary grid file format, opened through a memory mapping so large grids are searched without being
+ * parsed or copied onto the heap.
+ *
+ * Layout ( little-endian ) :
+ *   header  32 bytes : magic "AGRD", version, rows, columns, flags, 12 reserved bytes
+ *   bitmap  one bit per cell packed in longs, bit b of long k standing for cell 64 * k + b
+ *           ( 1 when not blocked ), the same layout BitGrid keeps in memory
+ *   costs   one unsigned byte per cell, present only when flag COSTS is set
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public final class GridFile {
+
+    public static final int MAGIC = 0x44524741; //"AGRD" read as a little-endian int
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int COSTS = 1; //flag : a cost byte follows the bitmap for every cell
+
+    private GridFile() {
+    }
+
+    /**
+     * Writes a grid, with the cost section when the grid carries terrain costs.
+     *
+     * @param grid The grid to be written
+     * @param file Path of the file, replaced if it exists
+     */
+    public static void write(Grid grid, Path file) throws IOException {
+        boolean costs = grid.hasCosts();
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(grid.getRows()).putInt(grid.getColumns())
+                    .putInt(costs ? COSTS : 0).putInt(0).putInt(0).putInt(0);
+
+            for (int k = 0, words = grid.wordCount(); k < words; k++) {
+                if (buffer.remaining() < 8) {
+                    drain(buffer, channel);
+                }
+                buffer.putLong(grid.getWord(k));
+            }
+
+            if (costs) {
+                for (int cell = 0, cells = grid.cellCount(); cell < cells; cell++) {
+                    if (!buffer.hasRemaining()) {
+                        drain(buffer, channel);
+                    }
+                    buffer.put((byte) grid.getCost(cell));
+                }
+            }
+            drain(buffer, channel);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Maps a grid file. The mapping stays valid after this returns and is released with the grid.
+     *
+     * @param file Path of the file
+     * @param writable True to let setOpen change the file
+     * @return The grid backed by the file
+     */
+    public static MappedGrid open(Path file, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Truncated grid file header: " + file);
+                }
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a grid file: " + file);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported grid file version " + version + ": " + file);
+            }
+            int rows = header.getInt();
+            int columns = header.getInt();
+            int flags = header.getInt();
+            if (rows < 1 || columns < 1 || (long) rows * columns > Integer.MAX_VALUE) {
+                throw new IOException("Unsupported grid size " + rows + "x" + columns + ": " + file);
+            }
+
+            long cells = (long) rows * columns;
+            long bitmapSize = ((cells + 63) >>> 6) * 8;
+            long costsSize = (flags & COSTS) != 0 ? cells : 0;
+            if (channel.size() < HEADER_SIZE + bitmapSize + costsSize) {
+                throw new IOException("Truncated grid file: " + file);
+            }
+
+            FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+            MappedByteBuffer bitmap = channel.map(mode, HEADER_SIZE, bitmapSize);
+            MappedByteBuffer costs = costsSize == 0 ? null
+                    : channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + bitmapSize, costsSize);
+            return new MappedGrid(rows, columns, bitmap, costs, writable);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the bytes put in the buffer and clears it.
+     */
+    static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Reads from the channel until the buffer is filled up to its limit, then flips it for reading.
+     */
+    static void fill(ByteBuffer buffer, FileChannel channel) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        buffer.flip();
+    }
+}
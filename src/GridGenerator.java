@@ -0,0 +1,472 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ *
+ * Seeded generator of test maps, filling the packed bitmap of a BitGrid in parallel. Every stripe of
+ * the grid draws from its own SplittableRandom derived from the seed and the index of the stripe, so a
+ * map only depends on its seed and size, never on the number of threads or the order they run in.
+ *
+ * Besides uniform random clutter ( the seeded equivalent of Main.random ) there are structured maps so
+ * benchmarks cover realistic topologies : perfect mazes, rooms joined by corridors, and smooth
+ * Perlin-like clutter made of blobs of obstacles.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public final class GridGenerator {
+
+    // Words of 64 cells filled by one task of the random generator
+    private static final int STRIPE_WORDS = 1024;
+
+    // Rows filled by one task of the maze and clutter generators, even so maze rows aren't split
+    private static final int BAND_ROWS = 64;
+
+    // Cells sampled to turn a walkable ratio into a noise threshold
+    private static final int SAMPLES = 4096;
+
+    // Bits of precision of the walkable probability of the random generator
+    private static final int PRECISION = 24;
+
+    // Unit gradient directions of the noise lattice, picked by hash
+    private static final double[] GRADIENT_X = new double[64];
+    private static final double[] GRADIENT_Y = new double[64];
+
+    static
+    {
+        for (int k = 0; k < 64; k++)
+        {
+            GRADIENT_X[k] = Math.cos(2 * Math.PI * k / 64);
+            GRADIENT_Y[k] = Math.sin(2 * Math.PI * k / 64);
+        }
+    }
+
+    private GridGenerator() {
+    }
+
+    /**
+     * Renders the rows from firstRow to lastRow ( excluded ) of a map into row-aligned bitsets.
+     */
+    private interface Band
+    {
+        /**
+         * @param bits Bitset of the grid, row i starting at word i * stride
+         * @param stride Number of words per row
+         */
+        void render(int firstRow, int lastRow, long[] bits, int stride);
+    }
+
+    /**
+     * Every cell is walkable with probability p, independently of the others. The probability is rounded
+     * to 24 bits so that a word of 64 cells is built from at most 24 random longs instead of one random
+     * number per cell : going through the bits of p from the lowest set one, every bit ORs ( 1 ) or ANDs
+     * ( 0 ) a random long into the word, each bit of the result being set with probability p.
+     *
+     * @param rows Number of rows of the matrix
+     * @param columns Number of columns of the matrix
+     * @param p Probability of a cell being walkable
+     * @param seed Seed of the map
+     * @return The grid
+     */
+    public static BitGrid random(int rows, int columns, double p, long seed)
+    {
+        checkSize(rows, columns);
+        long cells = (long) rows * columns;
+        long[] words = new long[(int) ((cells + 63) >>> 6)];
+        int stripes = (words.length + STRIPE_WORDS - 1) / STRIPE_WORDS;
+        long fraction = Math.round(Math.max(0, Math.min(1, p)) * (1L << PRECISION));
+
+        IntStream.range(0, stripes).parallel().forEach(s -> {
+            SplittableRandom random = stream(seed, s);
+            int last = Math.min(words.length, (s + 1) * STRIPE_WORDS);
+            for (int k = s * STRIPE_WORDS; k < last; k++)
+            {
+                long word = fraction >> PRECISION != 0 ? -1L : 0;
+                for (int b = Long.numberOfTrailingZeros(fraction); b < PRECISION; b++)
+                {
+                    word = (fraction >>> b & 1) != 0 ? word | random.nextLong() : word & random.nextLong();
+                }
+                long bits = cells - ((long) k << 6);
+                words[k] = bits >= 64 ? word : word & ((1L << bits) - 1); //cells past the end stay blocked
+            }
+        });
+        return new BitGrid(rows, columns, words);
+    }
+
+    /**
+     * Perfect maze carved with the sidewinder algorithm, every walkable cell being reachable from every
+     * other one along exactly one path. The maze cells are the cells with even row and column numbers,
+     * the cells between two of them being opened where a passage joins them. Every row of the maze is
+     * carved from its own random stream, so the rows are carved in parallel.
+     *
+     * @param rows Number of rows of the matrix
+     * @param columns Number of columns of the matrix
+     * @param seed Seed of the map
+     * @return The grid
+     */
+    public static BitGrid maze(int rows, int columns, long seed)
+    {
+        int mazeRows = (rows + 1) / 2;
+        int mazeColumns = (columns + 1) / 2;
+        return generate(rows, columns, BAND_ROWS, (firstRow, lastRow, bits, stride) -> {
+            boolean[] east = new boolean[mazeColumns]; //passage from maze cell c to c + 1
+            int[] north = new int[mazeColumns]; //maze columns with a passage to the row above
+            for (int i = firstRow; i < lastRow; i++)
+            {
+                // Grid row 2r holds the cells of maze row r, grid row 2r - 1 the passages up from it
+                int r = (i + 1) / 2;
+                if (r >= mazeRows)
+                {
+                    continue;
+                }
+                int passages = sidewinder(stream(seed, r), r, east, north);
+                int offset = i * stride;
+                if (i % 2 == 0)
+                {
+                    for (int c = 0; c < mazeColumns; c++)
+                    {
+                        set(bits, offset, 2 * c);
+                        if (east[c])
+                        {
+                            set(bits, offset, 2 * c + 1);
+                        }
+                    }
+                }
+                else
+                {
+                    for (int k = 0; k < passages; k++)
+                    {
+                        set(bits, offset, 2 * north[k]);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Carves one row of a sidewinder maze. The first row is a single corridor. On the other rows every
+     * run of cells joined east is closed at random and linked to the row above by a passage from one of
+     * its cells.
+     *
+     * @return The number of passages to the row above, stored at the start of north
+     */
+    private static int sidewinder(SplittableRandom random, int r, boolean[] east, int[] north)
+    {
+        int mazeColumns = east.length;
+        int passages = 0;
+        int runStart = 0;
+        for (int c = 0; c < mazeColumns; c++)
+        {
+            boolean last = c == mazeColumns - 1;
+            if (r == 0)
+            {
+                east[c] = !last;
+            }
+            else if (last || random.nextBoolean())
+            {
+                east[c] = false;
+                north[passages++] = runStart + random.nextInt(c - runStart + 1);
+                runStart = c + 1;
+            }
+            else
+            {
+                east[c] = true;
+            }
+        }
+        return passages;
+    }
+
+    /**
+     * Rectangular rooms joined by corridors. The grid is cut in square tiles, each holding one room of
+     * random size and position. Every room is joined to the room east of it, and to the room south of it
+     * for the first tile of a row and at random for the others, by L-shaped corridors one cell wide.
+     * Every walkable cell is reachable from every other one.
+     *
+     * @param rows Number of rows of the matrix
+     * @param columns Number of columns of the matrix
+     * @param tileSize Side of a tile in cells, the largest a room can be
+     * @param seed Seed of the map
+     * @return The grid
+     */
+    public static BitGrid rooms(int rows, int columns, int tileSize, long seed)
+    {
+        if (tileSize < 2)
+        {
+            throw new IllegalArgumentException("Tile size must be at least 2: " + tileSize);
+        }
+        int tileRows = (rows + tileSize - 1) / tileSize;
+        int tileColumns = (columns + tileSize - 1) / tileSize;
+        return generate(rows, columns, tileSize, (firstRow, lastRow, bits, stride) -> {
+            int a = firstRow / tileSize;
+            int[] above = a > 0 ? rooms(seed, a - 1, tileColumns, tileSize, rows, columns) : null;
+            int[] current = rooms(seed, a, tileColumns, tileSize, rows, columns);
+            int[] below = a + 1 < tileRows ? rooms(seed, a + 1, tileColumns, tileSize, rows, columns) : null;
+
+            for (int b = 0; b < tileColumns; b++)
+            {
+                int room = 5 * b;
+                fill(bits, stride, firstRow, lastRow, current[room], current[room] + current[room + 1] - 1,
+                        current[room + 2], current[room + 2] + current[room + 3] - 1);
+                if (b + 1 < tileColumns)
+                {
+                    corridor(bits, stride, firstRow, lastRow, current, room, current, room + 5, true);
+                }
+                if (above != null && above[room + 4] != 0)
+                {
+                    corridor(bits, stride, firstRow, lastRow, above, room, current, room, false);
+                }
+                if (below != null && current[room + 4] != 0)
+                {
+                    corridor(bits, stride, firstRow, lastRow, current, room, below, room, false);
+                }
+            }
+        });
+    }
+
+    /**
+     * Draws the rooms of one row of tiles from the tiles' random streams.
+     *
+     * @return Top row, height, left column, width and south link ( 1 if joined to the room below ) of
+     *         every room, 5 ints per room
+     */
+    private static int[] rooms(long seed, int a, int tileColumns, int tileSize, int rows, int columns)
+    {
+        int[] rooms = new int[5 * tileColumns];
+        int tileTop = a * tileSize;
+        int height = Math.min(tileSize, rows - tileTop);
+        for (int b = 0; b < tileColumns; b++)
+        {
+            SplittableRandom random = stream(seed, (long) a * tileColumns + b);
+            int tileLeft = b * tileSize;
+            int width = Math.min(tileSize, columns - tileLeft);
+
+            // Rooms leave the last row and column of their tile as a wall where the tile is big enough
+            int roomHeight = span(random, height);
+            int roomWidth = span(random, width);
+            rooms[5 * b] = tileTop + random.nextInt(Math.max(1, height - 1) - roomHeight + 1);
+            rooms[5 * b + 1] = roomHeight;
+            rooms[5 * b + 2] = tileLeft + random.nextInt(Math.max(1, width - 1) - roomWidth + 1);
+            rooms[5 * b + 3] = roomWidth;
+            rooms[5 * b + 4] = b == 0 || random.nextBoolean() ? 1 : 0;
+        }
+        return rooms;
+    }
+
+    /**
+     * @return A random room side from half to all of the tile side less its wall
+     */
+    private static int span(SplittableRandom random, int tileSide)
+    {
+        int available = Math.max(1, tileSide - 1);
+        int min = (available + 1) / 2;
+        return min + random.nextInt(available - min + 1);
+    }
+
+    /**
+     * Draws the L-shaped corridor between the centres of two rooms, clipped to a band of rows. An east
+     * corridor runs along the row of the first room then along the column of the second, a south
+     * corridor along the column of the first room then along the row of the second.
+     */
+    private static void corridor(long[] bits, int stride, int firstRow, int lastRow,
+                                 int[] fromRooms, int from, int[] toRooms, int to, boolean east)
+    {
+        int fromI = fromRooms[from] + fromRooms[from + 1] / 2;
+        int fromJ = fromRooms[from + 2] + fromRooms[from + 3] / 2;
+        int toI = toRooms[to] + toRooms[to + 1] / 2;
+        int toJ = toRooms[to + 2] + toRooms[to + 3] / 2;
+        int cornerI = east ? fromI : toI;
+        int cornerJ = east ? toJ : fromJ;
+        fill(bits, stride, firstRow, lastRow, Math.min(fromI, cornerI), Math.max(fromI, cornerI),
+                Math.min(fromJ, cornerJ), Math.max(fromJ, cornerJ));
+        fill(bits, stride, firstRow, lastRow, Math.min(cornerI, toI), Math.max(cornerI, toI),
+                Math.min(cornerJ, toJ), Math.max(cornerJ, toJ));
+    }
+
+    /**
+     * Smooth clutter : blobs of obstacles following two octaves of gradient noise, walkable where the
+     * noise is below a threshold. The threshold is the p quantile of the noise over a seeded sample of
+     * cells, so about a fraction p of the cells is walkable.
+     *
+     * @param rows Number of rows of the matrix
+     * @param columns Number of columns of the matrix
+     * @param p Approximate fraction of walkable cells
+     * @param scale Size of the blobs in cells, the spacing of the noise lattice
+     * @param seed Seed of the map
+     * @return The grid
+     */
+    public static BitGrid clutter(int rows, int columns, double p, double scale, long seed)
+    {
+        if (!(scale > 0))
+        {
+            throw new IllegalArgumentException("Scale must be positive: " + scale);
+        }
+        SplittableRandom random = stream(seed, -1);
+        double[] samples = new double[SAMPLES];
+        for (int k = 0; k < SAMPLES; k++)
+        {
+            samples[k] = fractal(seed, random.nextInt(rows) / scale, random.nextInt(columns) / scale);
+        }
+        Arrays.sort(samples);
+        double threshold = p >= 1 ? Double.POSITIVE_INFINITY
+                : p <= 0 ? Double.NEGATIVE_INFINITY : samples[(int) (p * SAMPLES)];
+
+        return generate(rows, columns, BAND_ROWS, (firstRow, lastRow, bits, stride) -> {
+            for (int i = firstRow; i < lastRow; i++)
+            {
+                for (int j = 0; j < columns; j++)
+                {
+                    if (fractal(seed, i / scale, j / scale) < threshold)
+                    {
+                        set(bits, i * stride, j);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * @return Two octaves of gradient noise at (x, y), roughly within [-1, 1]
+     */
+    private static double fractal(long seed, double x, double y)
+    {
+        return (noise(seed, x, y) + 0.5 * noise(~seed, 2 * x, 2 * y)) / 1.5;
+    }
+
+    /**
+     * Gradient noise in the manner of Perlin : every lattice point gets a hashed gradient direction and
+     * the dot products with the offsets to the four surrounding points are blended with a smooth fade.
+     */
+    private static double noise(long seed, double x, double y)
+    {
+        long x0 = (long) Math.floor(x);
+        long y0 = (long) Math.floor(y);
+        double fx = x - x0;
+        double fy = y - y0;
+        double u = fade(fx);
+        double v = fade(fy);
+        double top = lerp(u, gradient(seed, x0, y0, fx, fy), gradient(seed, x0 + 1, y0, fx - 1, fy));
+        double bottom = lerp(u, gradient(seed, x0, y0 + 1, fx, fy - 1), gradient(seed, x0 + 1, y0 + 1, fx - 1, fy - 1));
+        return lerp(v, top, bottom);
+    }
+
+    private static double gradient(long seed, long x, long y, double dx, double dy)
+    {
+        int k = (int) (mix(seed ^ mix(x * 0x9E3779B97F4A7C15L ^ y)) >>> 58);
+        return GRADIENT_X[k] * dx + GRADIENT_Y[k] * dy;
+    }
+
+    private static double fade(double t)
+    {
+        return t * t * t * (t * (t * 6 - 15) + 10);
+    }
+
+    private static double lerp(double t, double a, double b)
+    {
+        return a + t * (b - a);
+    }
+
+    /**
+     * Renders a map band by band in parallel into row-aligned bitsets, where no two bands share a word,
+     * then packs the rows into the bitmap of the grid, again in parallel.
+     */
+    private static BitGrid generate(int rows, int columns, int bandRows, Band band)
+    {
+        checkSize(rows, columns);
+        int stride = (columns + 63) >>> 6;
+        long[] bits = new long[rows * stride];
+        int bands = (rows + bandRows - 1) / bandRows;
+        IntStream.range(0, bands).parallel().forEach(
+                b -> band.render(b * bandRows, Math.min(rows, (b + 1) * bandRows), bits, stride));
+
+        if (columns % 64 == 0)
+        {
+            return new BitGrid(rows, columns, bits);
+        }
+
+        long cells = (long) rows * columns;
+        long[] words = new long[(int) ((cells + 63) >>> 6)];
+        IntStream.range(0, (words.length + STRIPE_WORDS - 1) / STRIPE_WORDS).parallel().forEach(s -> {
+            int last = Math.min(words.length, (s + 1) * STRIPE_WORDS);
+            for (int k = s * STRIPE_WORDS; k < last; k++)
+            {
+                // Gather the cells of word k, which may span several rows
+                long word = 0;
+                long cell = (long) k << 6;
+                long end = Math.min(cells, cell + 64);
+                while (cell < end)
+                {
+                    int i = (int) (cell / columns);
+                    int j = (int) (cell % columns);
+                    int count = (int) Math.min(end - cell, columns - j);
+                    word |= extract(bits, i * stride, j, count) << (cell & 63);
+                    cell += count;
+                }
+                words[k] = word;
+            }
+        });
+        return new BitGrid(rows, columns, words);
+    }
+
+    /**
+     * @return count bits ( at most 64 ) of a row starting at column j, in the low bits
+     */
+    private static long extract(long[] bits, int offset, int j, int count)
+    {
+        int k = offset + (j >>> 6);
+        int shift = j & 63;
+        long value = bits[k] >>> shift;
+        if (shift != 0 && shift + count > 64)
+        {
+            value |= bits[k + 1] << (64 - shift);
+        }
+        return count == 64 ? value : value & ((1L << count) - 1);
+    }
+
+    private static void set(long[] bits, int offset, int j)
+    {
+        bits[offset + (j >>> 6)] |= 1L << j;
+    }
+
+    /**
+     * Opens a rectangle of cells ( bounds included ) clipped to a band of rows.
+     */
+    private static void fill(long[] bits, int stride, int firstRow, int lastRow, int i0, int i1, int j0, int j1)
+    {
+        for (int i = Math.max(i0, firstRow); i <= Math.min(i1, lastRow - 1); i++)
+        {
+            for (int j = j0; j <= j1; j++)
+            {
+                set(bits, i * stride, j);
+            }
+        }
+    }
+
+    private static void checkSize(int rows, int columns)
+    {
+        if (rows < 1 || columns < 1 || (long) rows * columns > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("Unsupported grid size: " + rows + "x" + columns);
+        }
+    }
+
+    /**
+     * @return The random stream of one stripe, row or tile of a map
+     */
+    private static SplittableRandom stream(long seed, long index)
+    {
+        return new SplittableRandom(mix(seed + mix(index)));
+    }
+
+    /**
+     * Stafford's variant 13 of the 64 bit finalizer, spreads nearby seeds and indices far apart.
+     */
+    private static long mix(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
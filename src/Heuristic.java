@@ -0,0 +1,97 @@
+/**
+ *
+ * Estimate of the cost between two cells from their row and column distances. An implementation is
+ * chosen once when a search engine is built, so no metric name is compared while searching. All the
+ * estimates here are consistent with the moves of the grid : horizontal and vertical moves cost 1 and
+ * diagonal moves cost the metric's diagonal cost. The moves of every metric are defined here too ( see
+ * diagonalCost and directions ), so every search engine accepts the same metric names.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public interface Heuristic {
+
+    // Sum of the row and column distances, for 4-connected moves
+    Heuristic MANHATTAN = (di, dj) -> di + dj;
+
+    // Larger of the row and column distances, for 8-connected moves where a diagonal costs 1
+    Heuristic CHEBYSHEV = (di, dj) -> Math.max(di, dj);
+
+    // Straight line distance, a lower bound for any moves but looser than OCTILE on a grid
+    Heuristic EUCLIDEAN = (di, dj) -> Math.sqrt((double) di * di + (double) dj * dj);
+
+    // Diagonal moves of cost 1.4 followed by straight moves, the exact distance on an open grid
+    Heuristic OCTILE = octile(1.4);
+
+    /**
+     * @param di Absolute difference of the row numbers
+     * @param dj Absolute difference of the column numbers
+     * @return The estimated cost between the two cells
+     */
+    double estimate(int di, int dj);
+
+    /**
+     * @param diagonalCost Cost of a diagonal move
+     * @return The octile distance for the given diagonal cost
+     */
+    static Heuristic octile(double diagonalCost)
+    {
+        double extra = diagonalCost - 1.0;
+        return (di, dj) -> Math.max(di, dj) + extra * Math.min(di, dj);
+    }
+
+    /**
+     * @param metric The distance measurement type
+     * @return The consistent heuristic of the metric ( octile distance for Euclidean )
+     */
+    static Heuristic forMetric(String metric)
+    {
+        switch (metric) {
+            case "Manhattan":
+                return MANHATTAN;
+            case "Euclidean":
+                return OCTILE;
+            case "Chebyshev":
+                return CHEBYSHEV;
+            default:
+                throw new IllegalArgumentException("Unknown metric: " + metric);
+        }
+    }
+
+    /**
+     * @param metric The distance measurement type
+     * @return The cost of a diagonal move, 2 for Manhattan where it stands for two straight moves
+     */
+    static double diagonalCost(String metric)
+    {
+        switch (metric) {
+            case "Manhattan":
+                return 2.0;
+            case "Euclidean":
+                return 1.4;
+            case "Chebyshev":
+                return 1.0;
+            default:
+                throw new IllegalArgumentException("Unknown metric: " + metric);
+        }
+    }
+
+    /**
+     * @param metric The distance measurement type
+     * @return The number of moves out of a cell, 4 for Manhattan and 8 for the diagonal metrics
+     */
+    static int directions(String metric)
+    {
+        switch (metric) {
+            case "Manhattan":
+                return 4;
+            case "Euclidean":
+            case "Chebyshev":
+                return 8;
+            default:
+                throw new IllegalArgumentException("Unknown metric: " + metric);
+        }
+    }
+}
@@ -0,0 +1,700 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ *
+ * Hierarchical path finding ( HPA* ). The grid is split into square clusters and the walkable cell
+ * pairs crossing each cluster border become entrances. The distances between the entrances of a
+ * cluster are precomputed, which gives a small abstract graph. A query connects the start and the goal
+ * to the entrances of their own clusters, searches the abstract graph and refines every abstract edge
+ * back into grid cells, the intra-cluster paths being cached after their first use.
+ *
+ * The paths are near optimal : they may be slightly longer than the ones found by AStar because they
+ * cross cluster borders only at the entrances. Goals within one cluster size of the start, and the rare
+ * queries the abstract graph has no route for, are answered by AStar instead.
+ *
+ * Terrain costs are taken into account like in AStar. They are read when the abstract graph is built,
+ * so like blocked cells they must not change afterwards.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class HierarchicalPathFinder implements PathFinder {
+
+    // Row and column offsets of the adjacent cells, in the same order as AStar
+    private static final int[] DI = {-1, 1, 0, 0, -1, -1, 1, 1};
+    private static final int[] DJ = {0, 0, -1, 1, -1, 1, -1, 1};
+
+    // Border runs at least this long get an entrance at both ends instead of one in the middle
+    private static final int WIDE_ENTRANCE = 6;
+
+    private final int rows; //number of rows of the matrix
+    private final int columns; //number of columns of the matrix, the stride of the cell indices
+    private final Grid grid; //bitmap of the walkable cells on the grid
+    private final Heuristic heuristic; //estimate of the cost to the goal, chosen once for the metric
+    private final double diagonalCost;
+    private final int directions; //4 for Manhattan, 8 when diagonal moves are allowed
+    private final int clusterSize; //side of a cluster in cells
+    private final int clusterRows; //number of clusters down the grid
+    private final int clusterColumns; //number of clusters across the grid
+    private final AStar fallback; //exact search used when the abstract graph has no route
+
+    private int[] nodeCell; //grid cell of every abstract node
+    private int[] clusterStart; //first index in clusterNodes of every cluster's abstract nodes
+    private int[] clusterNodes; //abstract nodes grouped by cluster
+    private int[] edgeStart; //first index in edgeTarget / edgeCost of every abstract node's edges
+    private int[] edgeTarget; //target node of every abstract edge
+    private double[] edgeCost; //cost of every abstract edge
+
+    //refined intra-cluster paths keyed on ( from node, to node )
+    private final Map<Long, int[]> pathCache = new ConcurrentHashMap<Long, int[]>();
+    //per thread state of the abstract graph search
+    private final ThreadLocal<AbstractSearch> abstractSearch = new ThreadLocal<AbstractSearch>();
+
+    /**
+     * Builds the abstract graph of the grid.
+     *
+     * @param grid The grid to be searched
+     * @param metric The distance measurement type
+     * @param clusterSize Side of a cluster in cells
+     */
+    public HierarchicalPathFinder(Grid grid, String metric, int clusterSize)
+    {
+        if (clusterSize < 2)
+        {
+            throw new IllegalArgumentException("Cluster size must be at least 2: " + clusterSize);
+        }
+        this.rows = grid.getRows();
+        this.columns = grid.getColumns();
+        this.grid = grid;
+        this.heuristic = Heuristic.forMetric(metric);
+        this.fallback = new AStar(grid, metric);
+        this.clusterSize = clusterSize;
+        this.clusterRows = (rows + clusterSize - 1) / clusterSize;
+        this.clusterColumns = (columns + clusterSize - 1) / clusterSize;
+
+        diagonalCost = Heuristic.diagonalCost(metric);
+        directions = Heuristic.directions(metric);
+
+        buildAbstractGraph();
+    }
+
+    /**
+     * @return The number of nodes in the abstract graph
+     */
+    public int getAbstractNodeCount()
+    {
+        return nodeCell.length;
+    }
+
+    /**
+     * Finds the entrances on every cluster border, then links the entrances of every cluster with
+     * their intra-cluster distances. The clusters are processed in parallel.
+     */
+    private void buildAbstractGraph()
+    {
+        Map<Integer, Integer> cellToNode = new HashMap<Integer, Integer>();
+        EdgeList edges = new EdgeList();
+
+        // Horizontal borders between rows border - 1 and border
+        for (int border = clusterSize; border < rows; border += clusterSize)
+        {
+            for (int from = 0; from < columns; from += clusterSize)
+            {
+                addEntrances(cellToNode, edges, border, from, Math.min(columns, from + clusterSize), true);
+            }
+        }
+        // Vertical borders between columns border - 1 and border
+        for (int border = clusterSize; border < columns; border += clusterSize)
+        {
+            for (int from = 0; from < rows; from += clusterSize)
+            {
+                addEntrances(cellToNode, edges, border, from, Math.min(rows, from + clusterSize), false);
+            }
+        }
+
+        int nodeCount = cellToNode.size();
+        nodeCell = new int[nodeCount];
+        int[] nodeCluster = new int[nodeCount];
+        clusterStart = new int[clusterRows * clusterColumns + 1];
+        for (Map.Entry<Integer, Integer> entry : cellToNode.entrySet())
+        {
+            nodeCell[entry.getValue()] = entry.getKey();
+            nodeCluster[entry.getValue()] = clusterOf(entry.getKey());
+            clusterStart[nodeCluster[entry.getValue()] + 1]++;
+        }
+        for (int c = 0; c < clusterRows * clusterColumns; c++)
+        {
+            clusterStart[c + 1] += clusterStart[c];
+        }
+        clusterNodes = new int[nodeCount];
+        int[] fill = Arrays.copyOf(clusterStart, clusterStart.length - 1);
+        for (int node = 0; node < nodeCount; node++)
+        {
+            clusterNodes[fill[nodeCluster[node]]++] = node;
+        }
+
+        // Distances between the entrances of every cluster, row major per cluster
+        final double[][] intraDistances = new double[clusterRows * clusterColumns][];
+        IntStream.range(0, intraDistances.length).parallel().forEach(c -> intraDistances[c] = clusterDistances(c));
+
+        for (int c = 0; c < intraDistances.length; c++)
+        {
+            int first = clusterStart[c];
+            int count = clusterStart[c + 1] - first;
+            for (int a = 0; a < count; a++)
+            {
+                for (int b = 0; b < count; b++)
+                {
+                    double distance = intraDistances[c][a * count + b];
+                    if (a != b && distance < Double.POSITIVE_INFINITY)
+                    {
+                        edges.add(clusterNodes[first + a], clusterNodes[first + b], distance);
+                    }
+                }
+            }
+        }
+
+        edges.toAdjacency(nodeCount);
+    }
+
+    /**
+     * Adds the entrances of one cluster border segment.
+     *
+     * @param border First row ( or column ) after the border
+     * @param from First column ( or row ) of the segment
+     * @param to Column ( or row ) after the segment
+     * @param horizontal True for a border between two rows
+     */
+    private void addEntrances(Map<Integer, Integer> cellToNode, EdgeList edges, int border, int from, int to,
+                              boolean horizontal)
+    {
+        int runStart = -1;
+        for (int k = from; k <= to; k++)
+        {
+            boolean crossable = k < to && crossingPartner(border, k, horizontal) >= 0;
+            if (crossable && runStart < 0)
+            {
+                runStart = k;
+            }
+            else if (!crossable && runStart >= 0)
+            {
+                int runEnd = k - 1;
+                if (runEnd - runStart + 1 >= WIDE_ENTRANCE)
+                {
+                    addTransition(cellToNode, edges, border, runStart, horizontal);
+                    addTransition(cellToNode, edges, border, runEnd, horizontal);
+                }
+                else
+                {
+                    addTransition(cellToNode, edges, border, (runStart + runEnd) / 2, horizontal);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    /**
+     * Finds the cell a border can be crossed to from the walkable cell at position k just before it. The
+     * cell straight across is preferred, the diagonal ones are only used by the 8-connected metrics.
+     *
+     * @return The cell after the border, -1 if the border can't be crossed at k
+     */
+    private int crossingPartner(int border, int k, boolean horizontal)
+    {
+        if (!(horizontal ? grid.isOpen(border - 1, k) : grid.isOpen(k, border - 1)))
+        {
+            return -1;
+        }
+        int limit = directions == 8 ? 1 : 0;
+        for (int offset = 0; offset <= limit; offset++)
+        {
+            for (int side = -offset; side <= offset; side += Math.max(1, 2 * offset))
+            {
+                int i = horizontal ? border : k + side;
+                int j = horizontal ? k + side : border;
+                if (grid.isOpen(i, j))
+                {
+                    return grid.index(i, j);
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void addTransition(Map<Integer, Integer> cellToNode, EdgeList edges, int border, int k,
+                               boolean horizontal)
+    {
+        int before = horizontal ? grid.index(border - 1, k) : grid.index(k, border - 1);
+        int after = crossingPartner(border, k, horizontal);
+        boolean diagonal = before / columns != after / columns && before % columns != after % columns;
+        int a = nodeOf(cellToNode, before);
+        int b = nodeOf(cellToNode, after);
+        double step = diagonal ? diagonalCost : 1.0;
+        edges.add(a, b, step * grid.getCost(after));
+        edges.add(b, a, step * grid.getCost(before));
+    }
+
+    private static int nodeOf(Map<Integer, Integer> cellToNode, int cell)
+    {
+        Integer node = cellToNode.get(cell);
+        if (node == null)
+        {
+            node = cellToNode.size();
+            cellToNode.put(cell, node);
+        }
+        return node;
+    }
+
+    /**
+     * @param cluster Index of the cluster
+     * @return The distances between every pair of the cluster's entrances, infinity when unreachable
+     *         inside the cluster
+     */
+    private double[] clusterDistances(int cluster)
+    {
+        int first = clusterStart[cluster];
+        int count = clusterStart[cluster + 1] - first;
+        double[] distances = new double[count * count];
+        for (int a = 0; a < count; a++)
+        {
+            SearchContext context = SearchContext.forGrid(grid);
+            searchCluster(context, nodeCell[clusterNodes[first + a]], cluster, -1, false);
+            for (int b = 0; b < count; b++)
+            {
+                int cell = nodeCell[clusterNodes[first + b]];
+                distances[a * count + b] = context.isDiscovered(cell) ? context.getG(cell) : Double.POSITIVE_INFINITY;
+            }
+        }
+        return distances;
+    }
+
+    @Override
+    public List<Node> findPath(int startI, int startJ, int goalI, int goalJ)
+    {
+        // If our start position is the same as our goal position returns an empty list
+        if (startI == goalI && startJ == goalJ)
+        {
+            return new LinkedList<Node>();
+        }
+
+        // If the goal lies in another component no path exists
+        if (!grid.mayConnect(grid.index(startI, startJ), grid.index(goalI, goalJ), directions == 8))
+        {
+            return new LinkedList<Node>();
+        }
+
+        // Nearby goals are cheaper to search directly and avoid the detour through the entrances
+        if (Math.max(Math.abs(startI - goalI), Math.abs(startJ - goalJ)) <= clusterSize)
+        {
+            return fallback.findPath(startI, startJ, goalI, goalJ);
+        }
+
+        int start = grid.index(startI, startJ);
+        int goal = grid.index(goalI, goalJ);
+        int nodeCount = nodeCell.length;
+        int startNode = nodeCount;
+        int goalNode = nodeCount + 1;
+
+        AbstractSearch search = abstractSearch.get();
+        if (search == null)
+        {
+            search = new AbstractSearch(nodeCount + 2);
+            abstractSearch.set(search);
+        }
+        search.reset();
+
+        // Connect the start to the entrances of its cluster ( and to the goal if it shares the cluster )
+        int startCluster = clusterOf(start);
+        int goalCluster = clusterOf(goal);
+        SearchContext context = SearchContext.forGrid(grid);
+        searchCluster(context, start, startCluster, -1, false);
+        search.startEdges = 0;
+        for (int k = clusterStart[startCluster]; k < clusterStart[startCluster + 1]; k++)
+        {
+            int node = clusterNodes[k];
+            if (context.isDiscovered(nodeCell[node]))
+            {
+                search.addStartEdge(node, context.getG(nodeCell[node]));
+            }
+        }
+        if (startCluster == goalCluster && context.isDiscovered(goal))
+        {
+            search.addStartEdge(goalNode, context.getG(goal));
+        }
+
+        // Connect the entrances of the goal's cluster to the goal, searching backwards from the goal
+        context = SearchContext.forGrid(grid);
+        searchCluster(context, goal, goalCluster, -1, true);
+        for (int k = clusterStart[goalCluster]; k < clusterStart[goalCluster + 1]; k++)
+        {
+            int node = clusterNodes[k];
+            if (context.isDiscovered(nodeCell[node]))
+            {
+                search.setGoalEdge(node, context.getG(nodeCell[node]));
+            }
+        }
+
+        int[] route = search.run(this, startNode, goalNode, goalI, goalJ);
+        if (route == null)
+        {
+            return fallback.findPath(startI, startJ, goalI, goalJ);
+        }
+        return refine(route, start, goal);
+    }
+
+    /**
+     * Turns a route through the abstract graph into the grid cells it crosses.
+     *
+     * @param route Abstract nodes from the start to the goal
+     * @return a list containing all of the visited nodes, from the start to the goal ( the start node
+     *         itself is the parent of the first node ).
+     */
+    private List<Node> refine(int[] route, int start, int goal)
+    {
+        int nodeCount = nodeCell.length;
+        LinkedList<Node> path = new LinkedList<Node>();
+        Node previous = new Node(start / columns, start % columns, true);
+        double g = 0;
+
+        for (int k = 1; k < route.length; k++)
+        {
+            int from = route[k - 1];
+            int to = route[k];
+            int fromCell = from < nodeCount ? nodeCell[from] : start;
+            int toCell = to < nodeCount ? nodeCell[to] : goal;
+            if (fromCell == toCell)
+            {
+                continue;
+            }
+
+            int[] cells;
+            if (from < nodeCount && to < nodeCount)
+            {
+                cells = cachedPath(from, to);
+            }
+            else
+            {
+                cells = clusterPath(fromCell, toCell);
+            }
+
+            for (int cell : cells)
+            {
+                Node node = new Node(cell / columns, cell % columns, true);
+                boolean diagonal = node.getI() != previous.getI() && node.getJ() != previous.getJ();
+                g += (diagonal ? diagonalCost : 1.0) * grid.getCost(cell);
+                node.g = g;
+                node.setParent(previous);
+                path.add(node);
+                previous = node;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * @return The cells from one abstract node to another ( excluding the first ), computed once and cached
+     */
+    private int[] cachedPath(int from, int to)
+    {
+        Long key = ((long) from << 32) | to;
+        int[] cells = pathCache.get(key);
+        if (cells == null)
+        {
+            cells = clusterPath(nodeCell[from], nodeCell[to]);
+            pathCache.put(key, cells);
+        }
+        return cells;
+    }
+
+    /**
+     * @return The cells on the shortest path between two cells ( excluding the first ). Cells in the same
+     *         cluster are joined inside the cluster, cells on both sides of a border are adjacent.
+     */
+    private int[] clusterPath(int fromCell, int toCell)
+    {
+        int fromCluster = clusterOf(fromCell);
+        if (fromCluster != clusterOf(toCell))
+        {
+            return new int[] {toCell};
+        }
+
+        SearchContext context = SearchContext.forGrid(grid);
+        searchCluster(context, fromCell, fromCluster, toCell, false);
+
+        int length = 0;
+        for (int cell = toCell; cell != fromCell; cell = context.getParent(cell))
+        {
+            length++;
+        }
+        int[] cells = new int[length];
+        for (int cell = toCell; cell != fromCell; cell = context.getParent(cell))
+        {
+            cells[--length] = cell;
+        }
+        return cells;
+    }
+
+    /**
+     * Dijkstra search from a cell which never leaves the given cluster. With a target it stops as soon
+     * as the target is reached, otherwise every reachable cell of the cluster is settled.
+     *
+     * @param context The calling thread's search state, already reset
+     * @param source The cell the search starts from
+     * @param cluster The cluster the search is confined to
+     * @param target The cell to stop at, -1 to settle the whole cluster
+     * @param backward True to compute the costs of the paths leading to the source instead of from it
+     */
+    private void searchCluster(SearchContext context, int source, int cluster, int target, boolean backward)
+    {
+        boolean weighted = grid.hasCosts();
+        int rowMin = (cluster / clusterColumns) * clusterSize;
+        int colMin = (cluster % clusterColumns) * clusterSize;
+        int rowMax = Math.min(rows, rowMin + clusterSize);
+        int colMax = Math.min(columns, colMin + clusterSize);
+        IntHeap openList = context.openList;
+
+        context.discover(source, -1, 0, 0);
+        while (!openList.isEmpty())
+        {
+            int current = openList.poll();
+            if (current == target)
+            {
+                openList.clear();
+                return;
+            }
+
+            int i = current / columns;
+            int j = current % columns;
+            for (int d = 0; d < directions; d++)
+            {
+                int adjacentI = i + DI[d];
+                int adjacentJ = j + DJ[d];
+                if (adjacentI < rowMin || adjacentI >= rowMax || adjacentJ < colMin || adjacentJ >= colMax)
+                {
+                    continue;
+                }
+                int adjacent = current + DI[d] * columns + DJ[d];
+                if (!grid.isOpen(adjacent))
+                {
+                    continue;
+                }
+                double step = d < 4 ? 1.0 : diagonalCost;
+                if (weighted)
+                {
+                    step *= grid.getCost(backward ? current : adjacent);
+                }
+                double adjacentG = context.getG(current) + step;
+                if (!context.isDiscovered(adjacent))
+                {
+                    context.discover(adjacent, current, adjacentG, 0);
+                }
+                else if (openList.contains(adjacent) && context.getG(adjacent) > adjacentG)
+                {
+                    context.improve(adjacent, current, adjacentG);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The index of the cluster containing the cell
+     */
+    private int clusterOf(int cell)
+    {
+        return (cell / columns / clusterSize) * clusterColumns + (cell % columns) / clusterSize;
+    }
+
+    /**
+     * Lower bound of the grid distance between a cell and the goal for the selected metric, scaled by
+     * the cheapest terrain cost.
+     */
+    private double heuristic(int cell, int goalI, int goalJ)
+    {
+        return grid.getMinCost() * heuristic.estimate(Math.abs(cell / columns - goalI), Math.abs(cell % columns - goalJ));
+    }
+
+    /**
+     * Growable list of directed edges, turned into adjacency arrays once complete.
+     */
+    private class EdgeList {
+
+        private int[] from = new int[64];
+        private int[] to = new int[64];
+        private double[] cost = new double[64];
+        private int size;
+
+        void add(int a, int b, double c)
+        {
+            if (size == from.length)
+            {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+                cost = Arrays.copyOf(cost, size * 2);
+            }
+            from[size] = a;
+            to[size] = b;
+            cost[size] = c;
+            size++;
+        }
+
+        void toAdjacency(int nodeCount)
+        {
+            edgeStart = new int[nodeCount + 1];
+            for (int e = 0; e < size; e++)
+            {
+                edgeStart[from[e] + 1]++;
+            }
+            for (int n = 0; n < nodeCount; n++)
+            {
+                edgeStart[n + 1] += edgeStart[n];
+            }
+            edgeTarget = new int[size];
+            edgeCost = new double[size];
+            int[] fill = Arrays.copyOf(edgeStart, nodeCount);
+            for (int e = 0; e < size; e++)
+            {
+                int slot = fill[from[e]]++;
+                edgeTarget[slot] = to[e];
+                edgeCost[slot] = cost[e];
+            }
+        }
+    }
+
+    /**
+     * A* over the abstract graph plus the temporary start and goal nodes. One instance per thread.
+     */
+    private static class AbstractSearch {
+
+        private final double[] g;
+        private final int[] parent;
+        private final int[] discovered;
+        private final double[] goalCost; //cost from an entrance of the goal's cluster to the goal
+        private final int[] goalStamp;
+        private final IntHeap openList;
+        private int generation;
+
+        private int[] startTargets = new int[16];
+        private double[] startCosts = new double[16];
+        private int startEdges;
+
+        AbstractSearch(int size)
+        {
+            g = new double[size];
+            parent = new int[size];
+            discovered = new int[size];
+            goalCost = new double[size];
+            goalStamp = new int[size];
+            openList = new ArrayIntHeap(size);
+        }
+
+        void reset()
+        {
+            openList.clear();
+            if (generation == Integer.MAX_VALUE)
+            {
+                Arrays.fill(discovered, 0);
+                Arrays.fill(goalStamp, 0);
+                generation = 0;
+            }
+            generation++;
+            startEdges = 0;
+        }
+
+        void addStartEdge(int node, double cost)
+        {
+            if (startEdges == startTargets.length)
+            {
+                startTargets = Arrays.copyOf(startTargets, startEdges * 2);
+                startCosts = Arrays.copyOf(startCosts, startEdges * 2);
+            }
+            startTargets[startEdges] = node;
+            startCosts[startEdges] = cost;
+            startEdges++;
+        }
+
+        void setGoalEdge(int node, double cost)
+        {
+            goalStamp[node] = generation;
+            goalCost[node] = cost;
+        }
+
+        /**
+         * @return The abstract nodes from the start to the goal, null if the goal can't be reached
+         */
+        int[] run(HierarchicalPathFinder graph, int startNode, int goalNode, int goalI, int goalJ)
+        {
+            discovered[startNode] = generation;
+            g[startNode] = 0;
+            parent[startNode] = -1;
+            openList.add(startNode, 0);
+
+            while (!openList.isEmpty())
+            {
+                int current = openList.poll();
+                if (current == goalNode)
+                {
+                    openList.clear();
+                    int length = 0;
+                    for (int node = goalNode; node >= 0; node = parent[node])
+                    {
+                        length++;
+                    }
+                    int[] route = new int[length];
+                    for (int node = goalNode; node >= 0; node = parent[node])
+                    {
+                        route[--length] = node;
+                    }
+                    return route;
+                }
+
+                if (current == startNode)
+                {
+                    for (int e = 0; e < startEdges; e++)
+                    {
+                        relax(graph, current, startTargets[e], startCosts[e], goalNode, goalI, goalJ);
+                    }
+                    continue;
+                }
+
+                for (int e = graph.edgeStart[current]; e < graph.edgeStart[current + 1]; e++)
+                {
+                    relax(graph, current, graph.edgeTarget[e], graph.edgeCost[e], goalNode, goalI, goalJ);
+                }
+                if (goalStamp[current] == generation)
+                {
+                    relax(graph, current, goalNode, goalCost[current], goalNode, goalI, goalJ);
+                }
+            }
+            return null;
+        }
+
+        private void relax(HierarchicalPathFinder graph, int from, int to, double cost, int goalNode,
+                           int goalI, int goalJ)
+        {
+            double toG = g[from] + cost;
+            if (discovered[to] != generation)
+            {
+                discovered[to] = generation;
+                g[to] = toG;
+                parent[to] = from;
+                double h = to == goalNode ? 0 : graph.heuristic(graph.nodeCell[to], goalI, goalJ);
+                openList.add(to, toG + h);
+            }
+            else if (openList.contains(to) && g[to] > toG)
+            {
+                g[to] = toG;
+                parent[to] = from;
+                double h = to == goalNode ? 0 : graph.heuristic(graph.nodeCell[to], goalI, goalJ);
+                openList.decreaseKey(to, toG + h);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+import java.util.Arrays;
+
+/**
+ *
+ * Indexed binary min-heap of cell indices keyed on a double ( the F value of the cell ). The keys are
+ * stored next to the cells in the heap arrays and every cell's position is kept in a per-cell store,
+ * so membership checks run in O(1) and decrease-key runs in O(log n). The per-cell store is left to
+ * the subclasses : ArrayIntHeap keeps it in an array and OffHeapSearchContext outside the heap. The heap
+ * arrays only grow with the number of cells in the heap and always stay on the Java heap.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public abstract class IntHeap {
+
+    private int[] cells; //cell indices in heap order
+    private double[] keys; //key of the cell at the same heap position
+    private int size; //number of cells currently in the heap
+
+    protected IntHeap()
+    {
+        cells = new int[16];
+        keys = new double[16];
+    }
+
+    /**
+     * @param cell Index of the cell
+     * @return The heap position of the cell, -1 when the cell is not in the heap
+     */
+    protected abstract int getPosition(int cell);
+
+    /**
+     * @param cell Index of the cell
+     * @param position The heap position of the cell, -1 when it leaves the heap
+     */
+    protected abstract void setPosition(int cell, int position);
+
+    /**
+     * Adds a cell to the heap
+     *
+     * @param cell The cell to be added
+     * @param key The key of the cell
+     */
+    public void add(int cell, double key)
+    {
+        if (size == cells.length)
+        {
+            cells = Arrays.copyOf(cells, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        siftUp(size++, cell, key);
+    }
+
+    /**
+     * @return The key of the cell at the top of the heap
+     */
+    public double peekKey()
+    {
+        return keys[0];
+    }
+
+    /**
+     * Removes and returns the cell with the lowest key.
+     *
+     * @return The cell with the lowest key
+     */
+    public int poll()
+    {
+        int cheapest = cells[0];
+        setPosition(cheapest, -1);
+        int last = cells[--size];
+        double lastKey = keys[size];
+        if (size > 0)
+        {
+            siftDown(0, last, lastKey);
+        }
+        return cheapest;
+    }
+
+    /**
+     * Lowers the key of a cell in the heap and restores the heap order.
+     *
+     * @param cell The cell whose key has decreased
+     * @param key The new key of the cell
+     */
+    public void decreaseKey(int cell, double key)
+    {
+        siftUp(getPosition(cell), cell, key);
+    }
+
+    /**
+     * @param cell The cell to be checked
+     * @return True if the cell is currently in the heap
+     */
+    public boolean contains(int cell)
+    {
+        return getPosition(cell) >= 0;
+    }
+
+    /**
+     * @return True if there are no cells in the heap
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * @return The number of cells in the heap
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Removes all the cells from the heap. Runs in time proportional to the heap size, not the cell count.
+     */
+    public void clear()
+    {
+        for (int k = 0; k < size; k++)
+        {
+            setPosition(cells[k], -1);
+        }
+        size = 0;
+    }
+
+    private void siftUp(int k, int cell, double key)
+    {
+        while (k > 0)
+        {
+            int parent = (k - 1) >>> 1;
+            if (keys[parent] <= key)
+            {
+                break;
+            }
+            move(parent, k);
+            k = parent;
+        }
+        place(k, cell, key);
+    }
+
+    private void siftDown(int k, int cell, double key)
+    {
+        int half = size >>> 1;
+        while (k < half)
+        {
+            int child = 2 * k + 1;
+            int right = child + 1;
+            if (right < size && keys[right] < keys[child])
+            {
+                child = right;
+            }
+            if (key <= keys[child])
+            {
+                break;
+            }
+            move(child, k);
+            k = child;
+        }
+        place(k, cell, key);
+    }
+
+    private void move(int from, int to)
+    {
+        cells[to] = cells[from];
+        keys[to] = keys[from];
+        setPosition(cells[to], to);
+    }
+
+    private void place(int k, int cell, double key)
+    {
+        cells[k] = cell;
+        keys[k] = key;
+        setPosition(cell, k);
+    }
+}
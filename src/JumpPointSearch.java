@@ -0,0 +1,416 @@
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ *
+ * Jump Point Search for the 8-connected metrics ( Euclidean and Chebyshev ). Every move on these
+ * grids has a uniform cost, so symmetric paths can be pruned and only the jump points where the
+ * path may turn are added to the open list. The paths have the same cost as the ones found by AStar.
+ *
+ * When built with precomputation enabled ( JPS+ ) the distance to the next jump point or wall is
+ * stored for every cell and direction, so a jump is a table lookup instead of a scan. The table
+ * must be rebuilt with precompute() after a cell of the grid changes.
+ *
+ * Pruning relies on every cell costing the same, so grids with terrain costs are searched by AStar
+ * instead.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class JumpPointSearch implements PathFinder {
+
+    // Row and column offsets of the directions, in the same order as AStar
+    private static final int[] DI = {-1, 1, 0, 0, -1, -1, 1, 1};
+    private static final int[] DJ = {0, 0, -1, 1, -1, 1, -1, 1};
+
+    private final int rows; //number of rows of the matrix
+    private final int columns; //number of columns of the matrix, the stride of the cell indices
+    private final Grid grid; //bitmap of the walkable cells on the grid
+    private final double diagonalCost; //cost of a diagonal move, horizontal and vertical moves cost 1
+    private final AStar fallback; //search used when the grid has terrain costs
+    private final Heuristic heuristic; //octile distance for the diagonal cost of the metric
+
+    // JPS+ only : per cell and direction, the distance to the next jump point when positive or
+    // minus the number of walkable cells before a wall otherwise
+    private int[] jumpDistances;
+
+    /**
+     * @param grid The grid to be searched
+     * @param metric The distance measurement type, Euclidean or Chebyshev
+     * @param precomputed True to precompute the jump distances ( JPS+ )
+     */
+    public JumpPointSearch(Grid grid, String metric, boolean precomputed)
+    {
+        this.rows = grid.getRows();
+        this.columns = grid.getColumns();
+        this.grid = grid;
+
+        if (Heuristic.directions(metric) != 8)
+        {
+            throw new IllegalArgumentException("Jump Point Search needs an 8-connected metric: " + metric);
+        }
+        diagonalCost = Heuristic.diagonalCost(metric);
+        this.fallback = new AStar(grid, metric);
+        this.heuristic = Heuristic.octile(diagonalCost);
+
+        if (precomputed)
+        {
+            precompute();
+        }
+    }
+
+    /**
+     * Builds the JPS+ jump distance table from the current state of the grid. Runs in time proportional
+     * to the number of cells.
+     */
+    public void precompute()
+    {
+        int[] distances = new int[grid.cellCount() * 8];
+
+        // Straight directions first, the diagonal distances depend on them
+        for (int d = 0; d < 8; d++)
+        {
+            int di = DI[d];
+            int dj = DJ[d];
+            // Visit every cell after the cell next to it in direction d
+            int iFrom = di > 0 ? rows - 1 : 0;
+            int iStep = di > 0 ? -1 : 1;
+            int jFrom = dj > 0 ? columns - 1 : 0;
+            int jStep = dj > 0 ? -1 : 1;
+
+            for (int i = iFrom; i >= 0 && i < rows; i += iStep)
+            {
+                for (int j = jFrom; j >= 0 && j < columns; j += jStep)
+                {
+                    if (!grid.isOpen(i, j))
+                    {
+                        continue;
+                    }
+                    int nextI = i + di;
+                    int nextJ = j + dj;
+                    int distance;
+                    if (!grid.isOpen(nextI, nextJ))
+                    {
+                        distance = 0;
+                    }
+                    else if (isJumpPoint(nextI, nextJ, di, dj, distances))
+                    {
+                        distance = 1;
+                    }
+                    else
+                    {
+                        int next = distances[grid.index(nextI, nextJ) * 8 + d];
+                        distance = next > 0 ? next + 1 : next - 1;
+                    }
+                    distances[grid.index(i, j) * 8 + d] = distance;
+                }
+            }
+        }
+        jumpDistances = distances;
+    }
+
+    /**
+     * Decides if a cell reached by moving in a direction is a jump point when the goal is not known,
+     * using the straight distances of the table for the diagonal directions.
+     */
+    private boolean isJumpPoint(int i, int j, int di, int dj, int[] distances)
+    {
+        if (hasForcedNeighbour(i, j, di, dj))
+        {
+            return true;
+        }
+        if (di != 0 && dj != 0)
+        {
+            int cell = grid.index(i, j) * 8;
+            return distances[cell + direction(di, 0)] > 0 || distances[cell + direction(0, dj)] > 0;
+        }
+        return false;
+    }
+
+    @Override
+    public List<Node> findPath(int startI, int startJ, int goalI, int goalJ)
+    {
+        // If our start position is the same as our goal position returns an empty list
+        if (startI == goalI && startJ == goalJ)
+        {
+            return new LinkedList<Node>();
+        }
+
+        // Jumps would skip over cells of different costs
+        if (grid.hasCosts())
+        {
+            return fallback.findPath(startI, startJ, goalI, goalJ);
+        }
+
+        int start = grid.index(startI, startJ);
+        int goal = grid.index(goalI, goalJ);
+
+        // If the goal lies in another component no path exists
+        if (!grid.mayConnect(start, goal, true))
+        {
+            return new LinkedList<Node>();
+        }
+
+        SearchContext context = SearchContext.forGrid(grid);
+        IntHeap openList = context.openList;
+        int[] distances = jumpDistances;
+
+        context.discover(start, -1, 0, (float) heuristic(startI, startJ, goalI, goalJ));
+
+        while (!openList.isEmpty())
+        {
+            int current = openList.poll();
+
+            if (current == goal)
+            {
+                openList.clear();
+                return calcPath(context, start, goal);
+            }
+
+            int i = current / columns;
+            int j = current % columns;
+            int directions = prunedDirections(i, j, context.getParent(current));
+
+            for (int d = 0; d < 8; d++)
+            {
+                if ((directions & (1 << d)) == 0)
+                {
+                    continue;
+                }
+
+                int jumpPoint = distances != null
+                        ? jumpFromTable(distances, current, i, j, d, goalI, goalJ)
+                        : jump(i, j, DI[d], DJ[d], goal);
+                if (jumpPoint < 0)
+                {
+                    continue;
+                }
+
+                int steps = Math.max(Math.abs(jumpPoint / columns - i), Math.abs(jumpPoint % columns - j));
+                double jumpG = context.getG(current) + steps * (d < 4 ? 1.0 : diagonalCost);
+
+                if (!context.isDiscovered(jumpPoint))
+                {
+                    context.discover(jumpPoint, current, jumpG,
+                            (float) heuristic(jumpPoint / columns, jumpPoint % columns, goalI, goalJ));
+                }
+                else if (openList.contains(jumpPoint) && context.getG(jumpPoint) > jumpG)
+                {
+                    context.improve(jumpPoint, current, jumpG);
+                }
+            }
+        }
+
+        // No path exists, return an empty list.
+        return new LinkedList<Node>();
+    }
+
+    /**
+     * Returns the directions worth exploring from a cell given the direction it was reached in : the
+     * natural neighbours plus the forced neighbours created by adjacent obstacles.
+     *
+     * @param i Row number of the cell
+     * @param j Column number of the cell
+     * @param parent The jump point the cell was reached from, -1 for the start
+     * @return A bit mask of the directions to explore
+     */
+    private int prunedDirections(int i, int j, int parent)
+    {
+        if (parent < 0)
+        {
+            return 0xFF;
+        }
+        int di = Integer.signum(i - parent / columns);
+        int dj = Integer.signum(j - parent % columns);
+
+        int directions = 1 << direction(di, dj);
+        if (di != 0 && dj != 0)
+        {
+            directions |= 1 << direction(di, 0);
+            directions |= 1 << direction(0, dj);
+            if (!grid.isOpen(i - di, j))
+            {
+                directions |= 1 << direction(-di, dj);
+            }
+            if (!grid.isOpen(i, j - dj))
+            {
+                directions |= 1 << direction(di, -dj);
+            }
+        }
+        else if (di != 0)
+        {
+            if (!grid.isOpen(i, j + 1))
+            {
+                directions |= 1 << direction(di, 1);
+            }
+            if (!grid.isOpen(i, j - 1))
+            {
+                directions |= 1 << direction(di, -1);
+            }
+        }
+        else
+        {
+            if (!grid.isOpen(i + 1, j))
+            {
+                directions |= 1 << direction(1, dj);
+            }
+            if (!grid.isOpen(i - 1, j))
+            {
+                directions |= 1 << direction(-1, dj);
+            }
+        }
+        return directions;
+    }
+
+    /**
+     * @return True if a cell reached by moving in the given direction has a neighbour that can only be
+     *         reached optimally through it
+     */
+    private boolean hasForcedNeighbour(int i, int j, int di, int dj)
+    {
+        if (di != 0 && dj != 0)
+        {
+            return (!grid.isOpen(i - di, j) && grid.isOpen(i - di, j + dj))
+                    || (!grid.isOpen(i, j - dj) && grid.isOpen(i + di, j - dj));
+        }
+        else if (di != 0)
+        {
+            return (!grid.isOpen(i, j + 1) && grid.isOpen(i + di, j + 1))
+                    || (!grid.isOpen(i, j - 1) && grid.isOpen(i + di, j - 1));
+        }
+        else
+        {
+            return (!grid.isOpen(i + 1, j) && grid.isOpen(i + 1, j + dj))
+                    || (!grid.isOpen(i - 1, j) && grid.isOpen(i - 1, j + dj));
+        }
+    }
+
+    /**
+     * Moves from a cell in one direction until a jump point, the goal or a wall is reached.
+     *
+     * @return The jump point or the goal, -1 if a wall was reached first
+     */
+    private int jump(int i, int j, int di, int dj, int goal)
+    {
+        while (true)
+        {
+            i += di;
+            j += dj;
+            if (!grid.isOpen(i, j))
+            {
+                return -1;
+            }
+            int cell = grid.index(i, j);
+            if (cell == goal || hasForcedNeighbour(i, j, di, dj))
+            {
+                return cell;
+            }
+            // A diagonal move stops where one of its straight components finds something
+            if (di != 0 && dj != 0 && (jump(i, j, di, 0, goal) >= 0 || jump(i, j, 0, dj, goal) >= 0))
+            {
+                return cell;
+            }
+        }
+    }
+
+    /**
+     * JPS+ version of jump, reading the distance from the table and stopping early where the goal is
+     * lined up with the direction of travel.
+     *
+     * @return The jump point, the goal or the cell lined up with the goal, -1 if a wall is reached first
+     */
+    private int jumpFromTable(int[] distances, int cell, int i, int j, int d, int goalI, int goalJ)
+    {
+        int distance = distances[cell * 8 + d];
+        int reach = Math.abs(distance);
+        int di = DI[d];
+        int dj = DJ[d];
+        int rowDiff = (goalI - i) * di;
+        int columnDiff = (goalJ - j) * dj;
+
+        if (d < 4)
+        {
+            // The goal lies ahead on the same row or column, before the wall or the jump point
+            boolean inLine = di != 0 ? goalJ == j && rowDiff > 0 && rowDiff <= reach
+                    : goalI == i && columnDiff > 0 && columnDiff <= reach;
+            if (inLine)
+            {
+                return grid.index(goalI, goalJ);
+            }
+        }
+        else if (rowDiff > 0 && columnDiff > 0 && (rowDiff <= reach || columnDiff <= reach))
+        {
+            // The goal lies in this quadrant, stop where its row or column is reached
+            int steps = Math.min(rowDiff, columnDiff);
+            return grid.index(i + steps * di, j + steps * dj);
+        }
+
+        return distance > 0 ? grid.index(i + distance * di, j + distance * dj) : -1;
+    }
+
+    /**
+     * Octile distance for the diagonal cost of the metric, consistent with the moves of the grid.
+     */
+    private double heuristic(int i, int j, int goalI, int goalJ)
+    {
+        return heuristic.estimate(Math.abs(i - goalI), Math.abs(j - goalJ));
+    }
+
+    /**
+     * @return The index of the direction with the given row and column offsets
+     */
+    private static int direction(int di, int dj)
+    {
+        if (di == 0)
+        {
+            return dj < 0 ? 2 : 3;
+        }
+        if (dj == 0)
+        {
+            return di < 0 ? 0 : 1;
+        }
+        if (di < 0)
+        {
+            return dj < 0 ? 4 : 5;
+        }
+        return dj < 0 ? 6 : 7;
+    }
+
+    /**
+     * Expands the jump points between the start and the goal into every cell on the path.
+     *
+     * @return a list containing all of the visited nodes, from the start to the goal ( the start node
+     *         itself is the parent of the first node ).
+     */
+    private List<Node> calcPath(SearchContext context, int start, int goal)
+    {
+        LinkedList<Node> path = new LinkedList<Node>();
+
+        Node child = null;
+        for (int cell = goal; cell != start; cell = context.getParent(cell))
+        {
+            int from = context.getParent(cell);
+            int di = Integer.signum(cell / columns - from / columns);
+            int dj = Integer.signum(cell % columns - from % columns);
+            double stepCost = di != 0 && dj != 0 ? diagonalCost : 1.0;
+            int steps = Math.max(Math.abs(cell / columns - from / columns), Math.abs(cell % columns - from % columns));
+
+            // Walk back from this jump point to the previous one
+            for (int k = steps; k > 0; k--)
+            {
+                Node node = new Node(from / columns + k * di, from % columns + k * dj, true);
+                node.g = context.getG(from) + k * stepCost;
+                if (child != null)
+                {
+                    child.setParent(node);
+                }
+                path.addFirst(node);
+                child = node;
+            }
+        }
+        child.setParent(new Node(start / columns, start % columns, true));
+        return path;
+    }
+}
@@ -0,0 +1,473 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ *
+ * Landmark ( ALT ) lower bounds of the distance between two cells. The exact distances between a few
+ * landmark cells and every cell are precomputed, and by the triangle inequality the distance from a
+ * cell to the goal is at least the difference of their distances to any landmark. On maps with many
+ * obstacles these bounds are much tighter than the geometric heuristics, so far fewer cells are
+ * expanded.
+ *
+ * The Dijkstra searches of the landmarks run in parallel. The distances of a cell to all the landmarks
+ * are stored next to each other, so an estimate reads two short runs of floats. A table can be saved
+ * next to its grid file and loaded back instead of being rebuilt.
+ *
+ * The table describes the grid as it was when built and must be rebuilt after a cell changes.
+ *
+ * File layout ( little-endian ) :
+ *   header     40 bytes : magic "ALTL", version, grid rows, grid columns, landmark count K, flags,
+ *              metric, 4 reserved bytes, grid fingerprint ( long )
+ *   landmarks  K ints
+ *   from       cellCount * K floats
+ *   to         cellCount * K floats, present only when flag SEPARATE_TO is set
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class LandmarkTable {
+
+    // Relative error allowed for the rounding of the distances to floats, keeps the bounds admissible
+    private static final float SLACK = 1e-6f;
+
+    public static final int MAGIC = 0x4C544C41; //"ALTL" read as a little-endian int
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 40;
+    public static final int SEPARATE_TO = 1; //flag : the distances to the landmarks follow the ones from them
+
+    private static final String[] METRICS = {"Manhattan", "Euclidean", "Chebyshev"};
+
+    private final int rows; //number of rows of the grid the table was built for
+    private final int columns; //number of columns of the grid the table was built for
+    private final String metric; //distance measurement type the distances were computed for
+    private final long fingerprint; //fingerprint of the grid the table was built for
+    private final int[] landmarks; //cells of the landmarks
+    private final float[] from; //distance from landmark k to cell c at c * K + k, infinity if unreachable
+    private final float[] to; //distance from cell c to landmark k, the same array as from without terrain costs
+
+    /**
+     * Builds a table for landmarks spread evenly around the border of the grid.
+     *
+     * @param grid The grid to be searched
+     * @param metric The distance measurement type
+     * @param count Number of landmarks
+     */
+    public LandmarkTable(Grid grid, String metric, int count)
+    {
+        this(grid, metric, selectLandmarks(grid, metric, count));
+    }
+
+    /**
+     * Builds a table for the given landmarks, running the Dijkstra searches in parallel.
+     *
+     * @param grid The grid to be searched
+     * @param metric The distance measurement type
+     * @param landmarks Walkable cells to be used as landmarks
+     */
+    public LandmarkTable(Grid grid, String metric, int[] landmarks)
+    {
+        this.rows = grid.getRows();
+        this.columns = grid.getColumns();
+        this.metric = metric;
+        this.fingerprint = fingerprint(grid);
+        this.landmarks = landmarks.clone();
+        int count = landmarks.length;
+        int cellCount = grid.cellCount();
+        if ((long) cellCount * count > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("Too many landmarks for the grid size: " + count);
+        }
+
+        // One search per landmark, and one more backwards per landmark when moves aren't symmetric
+        boolean separate = grid.hasCosts();
+        DistanceField field = new DistanceField(grid, metric);
+        float[][] rows = new float[separate ? 2 * count : count][];
+        IntStream.range(0, rows.length).parallel()
+                .forEach(t -> rows[t] = field.field(landmarks[t % count], t >= count));
+
+        from = interleave(rows, 0, count, cellCount);
+        to = separate ? interleave(rows, count, count, cellCount) : from;
+    }
+
+    private LandmarkTable(int rows, int columns, String metric, long fingerprint, int[] landmarks, float[] from,
+                          float[] to)
+    {
+        this.rows = rows;
+        this.columns = columns;
+        this.metric = metric;
+        this.fingerprint = fingerprint;
+        this.landmarks = landmarks;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Loads the table saved next to a grid file, or builds it and saves it there when no up to date
+     * table exists.
+     *
+     * @param grid The grid read from the file
+     * @param gridFile Path of the grid file
+     * @param metric The distance measurement type
+     * @param count Number of landmarks
+     * @return The table of the grid
+     */
+    public static LandmarkTable forGridFile(Grid grid, Path gridFile, String metric, int count) throws IOException
+    {
+        Path file = pathFor(gridFile, metric);
+        if (Files.exists(file))
+        {
+            try
+            {
+                LandmarkTable table = load(file, grid, metric);
+                if (table.getLandmarkCount() == count)
+                {
+                    return table;
+                }
+            }
+            catch (IOException stale)
+            {
+                // Rebuilt below
+            }
+        }
+        LandmarkTable table = new LandmarkTable(grid, metric, count);
+        table.save(file);
+        return table;
+    }
+
+    /**
+     * @param gridFile Path of a grid file
+     * @param metric The distance measurement type
+     * @return The path of the grid's table for the metric, next to the grid file
+     */
+    public static Path pathFor(Path gridFile, String metric)
+    {
+        return gridFile.resolveSibling(gridFile.getFileName() + "." + metric.toLowerCase() + ".alt");
+    }
+
+    /**
+     * @return The number of landmarks
+     */
+    public int getLandmarkCount()
+    {
+        return landmarks.length;
+    }
+
+    /**
+     * @param k Index of the landmark
+     * @return The cell of the landmark
+     */
+    public int getLandmark(int k)
+    {
+        return landmarks[k];
+    }
+
+    /**
+     * @param cell Index of the cell
+     * @param goal Index of the goal
+     * @return A lower bound of the cost from the cell to the goal, 0 if no landmark gives one
+     */
+    public double estimate(int cell, int goal)
+    {
+        int count = landmarks.length;
+        int c = cell * count;
+        int g = goal * count;
+        double best = 0;
+        for (int k = 0; k < count; k++)
+        {
+            // landmark -> cell -> goal is no shorter than landmark -> goal
+            float landmarkToGoal = from[g + k];
+            float landmarkToCell = from[c + k];
+            // cell -> goal -> landmark is no shorter than cell -> landmark
+            float cellToLandmark = to[c + k];
+            float goalToLandmark = to[g + k];
+            if (landmarkToGoal == Float.POSITIVE_INFINITY || landmarkToCell == Float.POSITIVE_INFINITY)
+            {
+                continue;
+            }
+            best = Math.max(best, landmarkToGoal - landmarkToCell - SLACK * (landmarkToGoal + landmarkToCell));
+            best = Math.max(best, cellToLandmark - goalToLandmark - SLACK * (cellToLandmark + goalToLandmark));
+        }
+        return best;
+    }
+
+    /**
+     * Writes the table, replacing the file if it exists.
+     *
+     * @param file Path of the file
+     */
+    public void save(Path file) throws IOException
+    {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try
+        {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(columns).putInt(landmarks.length)
+                    .putInt(to != from ? SEPARATE_TO : 0).putInt(Arrays.asList(METRICS).indexOf(metric)).putInt(0)
+                    .putLong(fingerprint);
+            for (int landmark : landmarks)
+            {
+                if (buffer.remaining() < 4)
+                {
+                    GridFile.drain(buffer, channel);
+                }
+                buffer.putInt(landmark);
+            }
+            writeFloats(from, buffer, channel);
+            if (to != from)
+            {
+                writeFloats(to, buffer, channel);
+            }
+            GridFile.drain(buffer, channel);
+        }
+        finally
+        {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads a saved table and checks that it was built for the grid and the metric.
+     *
+     * @param file Path of the file
+     * @param grid The grid the table is used with
+     * @param metric The distance measurement type
+     * @return The table
+     * @throws IOException If the file can't be read or was built for another grid or metric
+     */
+    public static LandmarkTable load(Path file, Grid grid, String metric) throws IOException
+    {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try
+        {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(HEADER_SIZE);
+            GridFile.fill(buffer, channel);
+            if (buffer.getInt() != MAGIC)
+            {
+                throw new IOException("Not a landmark file: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION)
+            {
+                throw new IOException("Unsupported landmark file version " + version + ": " + file);
+            }
+            int rows = buffer.getInt();
+            int columns = buffer.getInt();
+            int count = buffer.getInt();
+            int flags = buffer.getInt();
+            int metricIndex = buffer.getInt();
+            buffer.getInt();
+            long fingerprint = buffer.getLong();
+            if (metricIndex < 0 || metricIndex >= METRICS.length || !METRICS[metricIndex].equals(metric))
+            {
+                throw new IOException("Landmark file was built for another metric: " + file);
+            }
+            if (rows != grid.getRows() || columns != grid.getColumns() || fingerprint != fingerprint(grid))
+            {
+                throw new IOException("Landmark file was built for another grid: " + file);
+            }
+
+            int[] landmarks = new int[count];
+            for (int k = 0; k < count; k++)
+            {
+                if (buffer.remaining() < 4)
+                {
+                    buffer.compact();
+                    buffer.limit(Math.min(buffer.capacity(), buffer.position() + 4 * (count - k)));
+                    GridFile.fill(buffer, channel);
+                }
+                landmarks[k] = buffer.getInt();
+            }
+            float[] from = readFloats(grid.cellCount() * count, buffer, channel);
+            float[] to = (flags & SEPARATE_TO) != 0 ? readFloats(grid.cellCount() * count, buffer, channel) : from;
+            return new LandmarkTable(rows, columns, metric, fingerprint, landmarks, from, to);
+        }
+        finally
+        {
+            channel.close();
+        }
+    }
+
+    private static void writeFloats(float[] values, ByteBuffer buffer, FileChannel channel) throws IOException
+    {
+        for (int offset = 0; offset < values.length; )
+        {
+            if (buffer.remaining() < 4)
+            {
+                GridFile.drain(buffer, channel);
+            }
+            int length = Math.min(buffer.remaining() / 4, values.length - offset);
+            buffer.asFloatBuffer().put(values, offset, length);
+            buffer.position(buffer.position() + 4 * length);
+            offset += length;
+        }
+    }
+
+    /**
+     * Reads floats following the bytes already in the buffer.
+     */
+    private static float[] readFloats(int count, ByteBuffer buffer, FileChannel channel) throws IOException
+    {
+        float[] values = new float[count];
+        for (int offset = 0; offset < count; )
+        {
+            if (buffer.remaining() < 4)
+            {
+                buffer.compact();
+                buffer.limit(Math.min(buffer.capacity(), buffer.position() + 4 * (count - offset)));
+                GridFile.fill(buffer, channel);
+            }
+            int length = Math.min(buffer.remaining() / 4, count - offset);
+            buffer.asFloatBuffer().get(values, offset, length);
+            buffer.position(buffer.position() + 4 * length);
+            offset += length;
+        }
+        return values;
+    }
+
+    /**
+     * Picks landmarks spread evenly around the border of the grid, each being the walkable cell of the
+     * largest component closest to its point on the border. Landmarks on the outside of the map give the
+     * tightest bounds for queries crossing it, and on maze-like maps a landmark cut off from the main
+     * component would give no bounds at all.
+     *
+     * @param grid The grid to be searched
+     * @param metric The distance measurement type
+     * @param count Number of landmarks
+     * @return The cells of the landmarks, fewer than requested if the grid has too few walkable cells
+     */
+    public static int[] selectLandmarks(Grid grid, String metric, int count)
+    {
+        int lastRow = grid.getRows() - 1;
+        int lastColumn = grid.getColumns() - 1;
+        ConnectedComponents components = grid.getComponents(Heuristic.directions(metric) == 8);
+        int main = largestComponent(grid, components);
+        int perimeter = Math.max(1, 2 * (lastRow + lastColumn));
+        int[] selected = new int[count];
+        int found = 0;
+        for (int k = 0; k < count; k++)
+        {
+            int p = (int) ((long) k * perimeter / count);
+            int i, j;
+            if (p < lastColumn) { i = 0; j = p; }
+            else if (p < lastColumn + lastRow) { i = p - lastColumn; j = lastColumn; }
+            else if (p < 2 * lastColumn + lastRow) { i = lastRow; j = 2 * lastColumn + lastRow - p; }
+            else { i = Math.min(lastRow, perimeter - p); j = 0; }
+
+            int cell = nearestOpen(grid, components, main, i, j);
+            if (cell >= 0 && !contains(selected, found, cell))
+            {
+                selected[found++] = cell;
+            }
+        }
+        return Arrays.copyOf(selected, found);
+    }
+
+    /**
+     * @return The cell of the component closest to (i, j) in rings of growing size, -1 if there is none
+     */
+    private static int nearestOpen(Grid grid, ConnectedComponents components, int label, int i, int j)
+    {
+        int radius = Math.max(grid.getRows(), grid.getColumns());
+        for (int r = 0; r < radius; r++)
+        {
+            for (int a = i - r; a <= i + r; a++)
+            {
+                for (int b = j - r; b <= j + r; b++)
+                {
+                    if ((Math.abs(a - i) == r || Math.abs(b - j) == r) && grid.isOpen(a, b)
+                            && components.getLabel(grid.index(a, b)) == label)
+                    {
+                        return grid.index(a, b);
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The label of the component with the most cells, 0 if the grid has no walkable cell
+     */
+    private static int largestComponent(Grid grid, ConnectedComponents components)
+    {
+        int[] sizes = new int[components.getMaxLabel() + 1];
+        for (int cell = 0, cells = grid.cellCount(); cell < cells; cell++)
+        {
+            sizes[components.getLabel(cell)]++;
+        }
+        int largest = 0;
+        for (int label = 1; label < sizes.length; label++)
+        {
+            if (sizes[label] > sizes[largest] || largest == 0)
+            {
+                largest = label;
+            }
+        }
+        return largest;
+    }
+
+    private static boolean contains(int[] cells, int length, int cell)
+    {
+        for (int k = 0; k < length; k++)
+        {
+            if (cells[k] == cell)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cheap fingerprint of the walkable cells and costs of a grid, to recognise a table saved for
+     * another grid or an older version of it.
+     */
+    private static long fingerprint(Grid grid)
+    {
+        long hash = (0xcbf29ce484222325L ^ grid.getRows()) * 0x100000001b3L ^ grid.getColumns();
+        for (int k = 0, words = grid.wordCount(); k < words; k++)
+        {
+            hash = (hash ^ grid.getWord(k)) * 0x100000001b3L;
+        }
+        if (grid.hasCosts())
+        {
+            for (int cell = 0, cells = grid.cellCount(); cell < cells; cell++)
+            {
+                hash = (hash ^ grid.getCost(cell)) * 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Lays the distance rows of several landmarks out cell by cell, in parallel over blocks of cells.
+     */
+    private static float[] interleave(float[][] rows, int first, int count, int cellCount)
+    {
+        float[] table = new float[cellCount * count];
+        int block = 1 << 14;
+        IntStream.range(0, (cellCount + block - 1) / block).parallel().forEach(b -> {
+            int end = Math.min(cellCount, (b + 1) * block);
+            for (int k = 0; k < count; k++)
+            {
+                float[] row = rows[first + k];
+                for (int cell = b * block; cell < end; cell++)
+                {
+                    table[cell * count + k] = row[cell];
+                }
+            }
+        });
+        return table;
+    }
+}
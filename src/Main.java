@@ -27,44 +27,86 @@ public class Main {
     static Colors colors = new Colors();
 
 
-    // given an N-by-N matrix of open cells, return an N-by-N matrix
+    // given an M-by-N matrix of open cells, return an M-by-N matrix
     // of cells reachable from the top
     public static boolean[][] flow(boolean[][] open) {
-        int N = open.length;
+        int M = open.length;
+        int N = open[0].length;
 
-        boolean[][] full = new boolean[N][N];
+        boolean[][] full = new boolean[M][N];
+        int[] stack = new int[64];
         for (int j = 0; j < N; j++) {
-            flow(open, full, 0, j);
+            stack = fill(open, full, 0, j, stack);
         }
 
         return full;
     }
 
-    // determine set of open/blocked cells using depth first search
+    // determine set of open/blocked cells reachable from (i, j)
     public static void flow(boolean[][] open, boolean[][] full, int i, int j) {
-        int N = open.length;
+        fill(open, full, i, j, new int[64]);
+    }
 
-        // base cases
-        if (i < 0 || i >= N) return;    // invalid row
-        if (j < 0 || j >= N) return;    // invalid column
-        if (!open[i][j]) return;        // not an open cell
-        if (full[i][j]) return;         // already marked as open
+    // scanline flood fill with an explicit stack of packed (i * N + j) seeds, so the depth of
+    // the fill never depends on the size of the matrix; returns the (possibly grown) stack
+    private static int[] fill(boolean[][] open, boolean[][] full, int i0, int j0, int[] stack) {
+        int M = open.length;
+        int N = open[0].length;
 
-        full[i][j] = true;
+        // base cases
+        if (i0 < 0 || i0 >= M) return stack;    // invalid row
+        if (j0 < 0 || j0 >= N) return stack;    // invalid column
+
+        int size = 0;
+        stack[size++] = i0 * N + j0;
+
+        while (size > 0) {
+            int seed = stack[--size];
+            int i = seed / N;
+            int j = seed % N;
+            boolean[] openRow = open[i];
+            boolean[] fullRow = full[i];
+            if (!openRow[j] || fullRow[j]) continue;    // blocked or already marked as full
+
+            // fill the whole open run of this row around the seed
+            int left = j;
+            while (left > 0 && openRow[left - 1] && !fullRow[left - 1]) left--;
+            int right = j;
+            while (right < N - 1 && openRow[right + 1] && !fullRow[right + 1]) right++;
+            for (int k = left; k <= right; k++) fullRow[k] = true;
+
+            // push one seed for every open run touching the filled run in the rows above and below
+            for (int row = i - 1; row <= i + 1; row += 2) {
+                if (row < 0 || row >= M) continue;
+                boolean[] openNext = open[row];
+                boolean[] fullNext = full[row];
+                boolean inRun = false;
+                for (int k = left; k <= right; k++) {
+                    boolean fillable = openNext[k] && !fullNext[k];
+                    if (fillable && !inRun) {
+                        if (size == stack.length) stack = Arrays.copyOf(stack, size * 2);
+                        stack[size++] = row * N + k;
+                    }
+                    inRun = fillable;
+                }
+            }
+        }
 
-        flow(open, full, i + 1, j);   // down
-        flow(open, full, i, j + 1);   // right
-        flow(open, full, i, j - 1);   // left
-        flow(open, full, i - 1, j);   // up
+        return stack;
     }
 
     // does the system percolate?
     public static boolean percolates(boolean[][] open) {
-        int N = open.length;
+        return percolatesFull(flow(open));
+    }
+
+    // does the system percolate, given the cells reachable from the top computed by flow?
+    public static boolean percolatesFull(boolean[][] full) {
+        int M = full.length;
+        int N = full[0].length;
 
-        boolean[][] full = flow(open);
         for (int j = 0; j < N; j++) {
-            if (full[N - 1][j]) return true;
+            if (full[M - 1][j]) return true;
         }
 
         return false;
@@ -72,15 +114,21 @@ public class Main {
 
     // does the system percolate vertically in a direct way?
     public static boolean percolatesDirect(boolean[][] open) {
-        int N = open.length;
+        return percolatesDirectFull(flow(open));
+    }
+
+    // does the system percolate vertically in a direct way, given the cells reachable from the top
+    // computed by flow?
+    public static boolean percolatesDirectFull(boolean[][] full) {
+        int M = full.length;
+        int N = full[0].length;
 
-        boolean[][] full = flow(open);
         int directPerc = 0;
         for (int j = 0; j < N; j++) {
-            if (full[N - 1][j]) {
+            if (full[M - 1][j]) {
                 // StdOut.println("Hello");
                 directPerc = 1;
-                int rowabove = N - 2;
+                int rowabove = M - 2;
                 for (int i = rowabove; i >= 0; i--) {
                     if (full[i][j]) {
                         // StdOut.println("i: " + i + " j: " + j + " " + full[i][j]);
@@ -91,45 +139,46 @@ public class Main {
         }
 
         // StdOut.println("Direct Percolation is: " + directPerc);
-        if (directPerc == N) return true;
+        if (directPerc == M) return true;
         else return false;
     }
 
-    // draw the N-by-N boolean matrix to standard draw
+    // draw the M-by-N boolean matrix to standard draw, the longer side setting the scale of both
     public void show(boolean[][] a, boolean which) {
-        int N = a.length;
+        int M = a.length;
+        int N = a[0].length;
         int boxCounter = 1;
-        nodes = new Node[N][N];
+        nodes = new Node[M][N];
 
-        StdDraw.setXscale(-1, N);
-        StdDraw.setYscale(-1, N);
+        StdDraw.setXscale(-1, Math.max(M, N));
+        StdDraw.setYscale(-1, Math.max(M, N));
         StdDraw.setPenColor(StdDraw.BLACK);
 
 
-        for (int i = 0; i < N; i++) {
+        for (int i = 0; i < M; i++) {
             for (int j = 0; j < N; j++) {
 
                 //if which is true (i.e Boolean value is 1) create a white box
                 if (a[i][j] == which) {
 
-                    StdDraw.square(j, N - i - 1, .5);
+                    StdDraw.square(j, M - i - 1, .5);
                     nodes[i][j] = new Node(i,j, true );
 
                 //else (i.e Boolean value is 0) create a black box
                 } else {
 
-                    StdDraw.filledSquare(j, N - i- 1, .5);
+                    StdDraw.filledSquare(j, M - i- 1, .5);
                     nodes[i][j] = new Node(i,j, false );
                 }
                 StdDraw.setPenColor(StdDraw.BLACK);
 
-                if(N<15)
+                if(Math.max(M, N)<15)
                     StdDraw.setFont(new Font("TimesRoman", Font.PLAIN , 10));
-                else if (N<25)
+                else if (Math.max(M, N)<25)
                     StdDraw.setFont(new Font("TimesRoman", Font.PLAIN , 5));
                 else
                     StdDraw.setFont(new Font("TimesRoman", Font.PLAIN , 0));
-                StdDraw.text(j, N - i - 1, ("("+ i + "," + j + ")"));
+                StdDraw.text(j, M - i - 1, ("("+ i + "," + j + ")"));
 
                 //System.out.print(" "+ nodes[i][j].isNotBlocked() + " ");
             }
@@ -138,33 +187,34 @@ public class Main {
 
     }
 
-    // draw the N-by-N boolean matrix to standard draw, including the points A (x1, y1) and B (x2,y2) to be marked by a circle
+    // draw the M-by-N boolean matrix to standard draw, including the points A (x1, y1) and B (x2,y2) to be marked by a circle
     public void show(boolean[][] a, boolean which, int x1, int y1, int x2, int y2) {
-        int N = a.length;
-        StdDraw.setXscale(-1, N);
-        StdDraw.setYscale(-1, N);
+        int M = a.length;
+        int N = a[0].length;
+        StdDraw.setXscale(-1, Math.max(M, N));
+        StdDraw.setYscale(-1, Math.max(M, N));
 
 
-        for (int i = 0; i < N; i++){
+        for (int i = 0; i < M; i++){
             for (int j = 0; j < N; j++) {
                 if (a[i][j] == which) {
 
                     if (i == x1 && j == y1) {
                         StdDraw.setPenColor(StdDraw.GREEN);
-                        StdDraw.filledCircle(j, N - i - 1, .5);
+                        StdDraw.filledCircle(j, M - i - 1, .5);
                         StdDraw.setPenColor(StdDraw.BLACK);
 
                     }else if(i == x2 && j == y2){
                         StdDraw.setPenColor(StdDraw.RED);
-                        StdDraw.filledCircle(j, N - i - 1, .5);
+                        StdDraw.filledCircle(j, M - i - 1, .5);
                         StdDraw.setPenColor(StdDraw.BLACK);
                     }else {
 
-                        StdDraw.square(j, N - i - 1, .5);
+                        StdDraw.square(j, M - i - 1, .5);
                     }
                 } else {
 
-                    StdDraw.filledSquare(j, N - i - 1, .5);
+                    StdDraw.filledSquare(j, M - i - 1, .5);
 
                 }
             }
@@ -174,10 +224,24 @@ public class Main {
     // return a random N-by-N boolean matrix, where each entry is
     // true with probability p
     public static boolean[][] random(int N, double p) {
-        boolean[][] a = new boolean[N][N];
-        for (int i = 0; i < N; i++)
+        return random(N, N, p);
+    }
+
+    // return a random M-by-N boolean matrix, where each entry is
+    // true with probability p, seeded by two draws from StdRandom so every call
+    // gives a new matrix and StdRandom.setSeed reproduces the sequence
+    public static boolean[][] random(int M, int N, double p) {
+        long seed = ((long) StdRandom.uniform(Integer.MAX_VALUE) << 31) ^ StdRandom.uniform(Integer.MAX_VALUE);
+        return random(M, N, p, seed);
+    }
+
+    // return the random M-by-N boolean matrix of a seed, generated in parallel by GridGenerator
+    public static boolean[][] random(int M, int N, double p, long seed) {
+        Grid grid = GridGenerator.random(M, N, p, seed);
+        boolean[][] a = new boolean[M][N];
+        for (int i = 0; i < M; i++)
             for (int j = 0; j < N; j++)
-                a[i][j] = StdRandom.bernoulli(p);
+                a[i][j] = grid.isOpen(i, j);
         return a;
     }
 
@@ -187,8 +251,8 @@ public class Main {
 
         Scanner in = new Scanner(System.in);
 
-        //integer to store the matrix size
-        int N = 0;
+        //integers to store the matrix size
+        int M = 0, N = 0;
         //double to store the obstacle ratio
         double ob = 0;
         // boolean[][] open = StdArrayIO.readBoolean2D();
@@ -204,15 +268,17 @@ public class Main {
 
         //getting the grid size from the user
         System.out.println();
-        System.out.println("Please enter your preferred grid size");
+        System.out.println("Please enter your preferred grid size ( N, or MxN for M rows of N columns )");
 
         try {
 
             do {
 
-                N = in.nextInt();
+                int[] size = Grid.parseSize(in.next());
+                M = size[0];
+                N = size[1];
 
-            }while (N < 1);
+            }while (M < 1 || N < 1);
 
         } catch (Exception e) {
 
@@ -241,9 +307,12 @@ public class Main {
 
 
 
-        // The following will generate a NxN squared grid with relatively few obstacles in it
-        // The lower the second parameter, the more obstacles (black cells) are generated
-        boolean[][] randomlyGenMatrix = random(N,ob);
+        // The following will generate a MxN grid with relatively few obstacles in it
+        // The lower the last parameter, the more obstacles (black cells) are generated
+        boolean[][] randomlyGenMatrix = random(M,N,ob);
+
+        //bitmap of the walkable cells shared by every search on this matrix
+        Grid grid = Grid.fromMatrix(randomlyGenMatrix, true);
 
         //printing the boolean array on the console
         //StdArrayIO.print(randomlyGenMatrix);
@@ -252,11 +321,13 @@ public class Main {
         new Main().show(randomlyGenMatrix, true);
 
         /*
+        boolean[][] full = flow(randomlyGenMatrix);
+
         System.out.println();
-        System.out.println("The system percolates: " + percolates(randomlyGenMatrix));
+        System.out.println("The system percolates: " + percolatesFull(full));
 
         System.out.println();
-        System.out.println("The system percolates directly: " + percolatesDirect(randomlyGenMatrix));
+        System.out.println("The system percolates directly: " + percolatesDirectFull(full));
         System.out.println();
         */
 
@@ -304,7 +375,7 @@ public class Main {
         // Checking the node co-ordinates
         //System.out.println("\n Node Co-Ordinates \n " );
         for(Node[] node : nodes){
-            for(int i =0;i<nodes.length;i++) {
+            for(int i =0;i<node.length;i++) {
 
                 //System.out.print(" " + node[i].getI() + " , " + node[i].getJ() + " | ");
 
@@ -351,8 +422,9 @@ public class Main {
 
                     metricType = "Manhattan";
 
-                    //stores the list of nodes returned by the find path method
-                    List<Node> finalPath = new AStar(N, nodes, metricType).findPath(Ai, Aj, Bi, Bj);
+                    //stores the cells of the shortest path and its total cost
+                    PathBuffer finalPath = new PathBuffer();
+                    double cost = new AStar(grid, metricType).findPath(Ai, Aj, Bi, Bj, finalPath);
 
                     System.out.println("\n**************************************************");
                     System.out.println("*                                                *");
@@ -362,8 +434,8 @@ public class Main {
 
                     if(finalPath.size()>0) {
                         System.out.println("\nA Path exists!");
-                        System.out.println("\nTotal cost of the shortest path - " + new Main().calcTotalCost(finalPath));
-                        System.out.println("\nPath followed - " + Arrays.toString(finalPath.toArray()));
+                        System.out.println("\nTotal cost of the shortest path - " + cost);
+                        new Main().printPath(finalPath);
                     }else {
                         System.out.println("\nSorry! A Path doesn't exist!");
                     }
@@ -371,11 +443,7 @@ public class Main {
 
 
                     //draws the shortest path on the grid
-                    new Main().drawLine(N, finalPath, Color.YELLOW);
-
-                    /*new Test(metricType).printH(nodes);
-                    new Test(metricType).printG(nodes);
-                    new Test(metricType).printF(nodes);*/
+                    new Main().drawLine(M, N, Ai, Aj, finalPath, Color.YELLOW);
 
                     break;
                 }
@@ -390,8 +458,9 @@ public class Main {
 
                     metricType = "Euclidean";
 
-                    //stores the list of nodes returned by the find path method
-                    List<Node> finalPath = new AStar(N, nodes, metricType).findPath(Ai, Aj, Bi, Bj);
+                    //stores the cells of the shortest path and its total cost
+                    PathBuffer finalPath = new PathBuffer();
+                    double cost = new AStar(grid, metricType).findPath(Ai, Aj, Bi, Bj, finalPath);
 
                     System.out.println("\n**************************************************");
                     System.out.println("*                                                *");
@@ -401,19 +470,15 @@ public class Main {
 
                     if(finalPath.size()>0) {
                         System.out.println("\nA Path exists! ");
-                        System.out.println("\nTotal cost of the shortest path - " + new Main().calcTotalCost(finalPath));
-                        System.out.println("\nPath followed - " + Arrays.toString(finalPath.toArray()));
+                        System.out.println("\nTotal cost of the shortest path - " + cost);
+                        new Main().printPath(finalPath);
                     }else{
                         System.out.println("\nSorry! A Path doesn't exist!");
                     }
                     StdOut.println("\nAlgorithm running time - " + timerFlow.elapsedTime());
 
                     //draws the shortest path on the grid
-                    new Main().drawLine(N, finalPath, Color.BLUE);
-
-                    /*new Test(metricType).printH(nodes);
-                    new Test(metricType).printG(nodes);
-                    new Test(metricType).printF(nodes);*/
+                    new Main().drawLine(M, N, Ai, Aj, finalPath, Color.BLUE);
 
                     break;
                 }
@@ -428,8 +493,9 @@ public class Main {
 
                     metricType = "Chebyshev";
 
-                    //stores the list of nodes returned by the find path method
-                    List<Node> finalPath = new AStar(N, nodes, metricType).findPath(Ai, Aj, Bi, Bj);
+                    //stores the cells of the shortest path and its total cost
+                    PathBuffer finalPath = new PathBuffer();
+                    double cost = new AStar(grid, metricType).findPath(Ai, Aj, Bi, Bj, finalPath);
 
                     System.out.println("\n**************************************************");
                     System.out.println("*                                                *");
@@ -440,8 +506,8 @@ public class Main {
 
                     if(finalPath.size()>0) {
                         System.out.println("\nA Path exists!  ");
-                        System.out.println("\nTotal cost of the shortest path - " + new Main().calcTotalCost(finalPath));
-                        System.out.println("\nPath followed - " + Arrays.toString(finalPath.toArray()));
+                        System.out.println("\nTotal cost of the shortest path - " + cost);
+                        new Main().printPath(finalPath);
                     }else{
                         System.out.println("\nSorry! A Path doesn't exist!");
                     }
@@ -449,11 +515,7 @@ public class Main {
 
 
                     //draws the shortest path on the grid
-                    new Main().drawLine(N, finalPath, Color.MAGENTA);
-
-                    /*new Test(metricType).printH(nodes);
-                    new Test(metricType).printG(nodes);
-                    new Test(metricType).printF(nodes);*/
+                    new Main().drawLine(M, N, Ai, Aj, finalPath, Color.MAGENTA);
 
                     break;
                 }
@@ -474,20 +536,21 @@ public class Main {
 
     /**
      * Draws the path on the grid
-     * @param N Size of the matrix
+     * @param M Number of rows of the matrix
+     * @param N Number of columns of the matrix
      * @param nodes List of nodes that are in the path
      */
-    public void drawLine( int N , List<Node> nodes , Color color){
+    public void drawLine( int M , int N , List<Node> nodes , Color color){
 
-        StdDraw.setXscale(-1,N);
-        StdDraw.setYscale(-1,N);
+        StdDraw.setXscale(-1,Math.max(M, N));
+        StdDraw.setYscale(-1,Math.max(M, N));
 
         for(Node node : nodes){
 
             StdDraw.setPenRadius(0.01);
             StdDraw.setPenColor(color);
             //StdDraw.line( aj , N-ai-1 , bj , N-bi-1 );
-            StdDraw.line( node.getParent().getJ() ,N - node.getParent().getI() -1, node.getJ() ,N- node.getI() -1 );
+            StdDraw.line( node.getParent().getJ() ,M - node.getParent().getI() -1, node.getJ() ,M- node.getI() -1 );
             StdDraw.setPenColor(StdDraw.BLACK);
             StdDraw.show(150);
             StdDraw.setPenRadius();
@@ -496,6 +559,53 @@ public class Main {
 
     }
 
+    /**
+     * Draws the path on the grid
+     * @param M Number of rows of the matrix
+     * @param N Number of columns of the matrix
+     * @param startI Row number of the start of the path
+     * @param startJ Column number of the start of the path
+     * @param path Cells of the path after the start
+     */
+    public void drawLine( int M , int N , int startI , int startJ , PathBuffer path , Color color){
+
+        StdDraw.setXscale(-1,Math.max(M, N));
+        StdDraw.setYscale(-1,Math.max(M, N));
+
+        int previousI = startI, previousJ = startJ;
+        for(int k = 0; k < path.size(); k++){
+
+            StdDraw.setPenRadius(0.01);
+            StdDraw.setPenColor(color);
+            StdDraw.line( previousJ ,M - previousI -1, path.getJ(k) ,M- path.getI(k) -1 );
+            StdDraw.setPenColor(StdDraw.BLACK);
+            StdDraw.show(150);
+            StdDraw.setPenRadius();
+
+            previousI = path.getI(k);
+            previousJ = path.getJ(k);
+        }
+
+    }
+
+    /**
+     * Prints the cells of the path one by one instead of building a single string for the whole path
+     * @param path Cells of the path after the start
+     */
+    public void printPath(PathBuffer path){
+
+        StringBuilder line = new StringBuilder(32);
+        System.out.print("\nPath followed - [");
+        for(int k = 0; k < path.size(); k++){
+
+            line.setLength(0);
+            if(k > 0) line.append(", ");
+            line.append('(').append(path.getI(k)).append(", ").append(path.getJ(k)).append(')');
+            System.out.print(line);
+        }
+        System.out.println("]");
+    }
+
     public double calcTotalCost(List <Node> path){
 
         double totalCost = 0.0;
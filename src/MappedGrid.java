@@ -0,0 +1,116 @@
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+
+/**
+ *
+ * Grid read straight from a memory-mapped grid file ( see GridFile ). The cells are never copied onto the
+ * heap : every lookup reads the mapped bitmap, so grids larger than the heap can be searched and the
+ * operating system pages in only the parts a search touches.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class MappedGrid extends Grid {
+
+    private final MappedByteBuffer bitmap; //mapped bitmap section of the file
+    private final LongBuffer open; //view of the bitmap, one bit per cell set when the cell is not blocked
+    private final MappedByteBuffer costs; //mapped cost of every cell, null if the file has none
+    private final boolean writable;
+    private volatile int minCost = -1; //lowest cost stored in the file, -1 until first needed
+
+    /**
+     * @param rows Number of rows of the matrix
+     * @param columns Number of columns of the matrix
+     * @param bitmap The mapped bitmap section of the file
+     * @param costs The mapped cost section of the file, null if the file has none
+     * @param writable True if the file was mapped for writing
+     */
+    MappedGrid(int rows, int columns, MappedByteBuffer bitmap, MappedByteBuffer costs, boolean writable)
+    {
+        super(rows, columns);
+        this.bitmap = bitmap;
+        this.open = bitmap.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        this.costs = costs;
+        this.writable = writable;
+    }
+
+    @Override
+    public boolean isOpen(int cell)
+    {
+        return (open.get(cell >>> 6) & (1L << cell)) != 0;
+    }
+
+    @Override
+    public long getWord(int k)
+    {
+        return open.get(k);
+    }
+
+    /**
+     * Changes a cell of the file itself. Only allowed when the file was opened for writing.
+     */
+    @Override
+    public void setOpen(int i, int j, boolean notBlocked)
+    {
+        if (!writable)
+        {
+            throw new UnsupportedOperationException("Grid file was opened read-only");
+        }
+        int cell = index(i, j);
+        long word = open.get(cell >>> 6);
+        if (((word & (1L << cell)) != 0) == notBlocked)
+        {
+            return;
+        }
+        open.put(cell >>> 6, notBlocked ? word | (1L << cell) : word & ~(1L << cell));
+        cellChanged(cell, notBlocked);
+    }
+
+    @Override
+    public boolean hasCosts()
+    {
+        return costs != null;
+    }
+
+    @Override
+    public int getCost(int cell)
+    {
+        return costs == null ? 1 : costs.get(cell) & 0xFF;
+    }
+
+    /**
+     * Scans the cost section once, the lowest cost of a file never changes.
+     */
+    @Override
+    public int getMinCost()
+    {
+        if (costs == null)
+        {
+            return 1;
+        }
+        if (minCost < 0)
+        {
+            int min = 255;
+            for (int cell = 0, cells = cellCount(); cell < cells && min > 0; cell++)
+            {
+                min = Math.min(min, costs.get(cell) & 0xFF);
+            }
+            minCost = min;
+        }
+        return minCost;
+    }
+
+    /**
+     * Writes the changes made through setOpen back to the file.
+     */
+    public void flush()
+    {
+        if (writable)
+        {
+            bitmap.force();
+        }
+    }
+}
@@ -94,28 +94,18 @@ public class Node {
      */
     public void setH(Node destination , String metric)
     {
+        setH(destination, Heuristic.forMetric(metric));
+    }
 
-
-        switch (metric) {
-            case "Manhattan": {
-                h = (Math.abs(getI() - destination.getI()) + Math.abs(getJ() - destination.getJ())) ;
-
-                break;
-            }
-            case "Euclidean": {
-                double hSqrd = Math.pow((getI() - destination.getI()) , 2) + Math.pow((getJ() - destination.getJ()) , 2);
-                h = Math.sqrt(hSqrd);
-
-                break;
-            }
-            case "Chebyshev": {
-                h = Math.max ( Math.abs(getI() - destination.getI()) ,
-                        Math.abs(getJ() - destination.getJ()));
-
-                break;
-            }
-        }
-
+    /**
+     * Sets the Heuristic to the estimate of the given heuristic between this node and the destination.
+     *
+     * @param destination The destination node
+     * @param heuristic The heuristic to be used
+     */
+    public void setH(Node destination , Heuristic heuristic)
+    {
+        h = heuristic.estimate(Math.abs(getI() - destination.getI()), Math.abs(getJ() - destination.getJ()));
     }
 
     /**
@@ -0,0 +1,159 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ *
+ * Fixed length array of 1, 4 or 8 byte elements kept outside the Java heap in direct buffers, so neither
+ * its size nor its contents weigh on the heap or the garbage collector. Elements are addressed by a long
+ * index and the memory is split in pages of 1 GiB, so one array may hold more than the 2 GiB a single
+ * buffer or Java array is limited to.
+ *
+ * The memory starts zeroed and is released once the array is garbage collected. The direct memory of a
+ * JVM is bounded by -XX:MaxDirectMemorySize, which defaults to the maximum heap size. Reads and writes of
+ * different elements may run from different threads at once.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public final class OffHeapArray {
+
+    // Size of a page in bytes, as a number of bits
+    private static final int PAGE_BITS = 30;
+    private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+
+    private final ByteBuffer[] pages; //the memory, every page but the last one PAGE_MASK + 1 bytes long
+    private final int shift; //size of an element in bytes, as a number of bits
+    private final long length; //number of elements
+
+    /**
+     * @param length Number of elements
+     * @param elementSize Size of an element in bytes, 1, 4 or 8
+     */
+    public OffHeapArray(long length, int elementSize)
+    {
+        if (elementSize != 1 && elementSize != 4 && elementSize != 8)
+        {
+            throw new IllegalArgumentException("Unsupported element size: " + elementSize);
+        }
+        if (length < 0 || length > Long.MAX_VALUE / elementSize)
+        {
+            throw new IllegalArgumentException("Unsupported length: " + length);
+        }
+        this.length = length;
+        this.shift = Integer.numberOfTrailingZeros(elementSize);
+
+        long bytes = length << shift;
+        long pageCount = (bytes + PAGE_MASK) >>> PAGE_BITS;
+        if (pageCount > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("Unsupported length: " + length);
+        }
+        pages = new ByteBuffer[(int) pageCount];
+        for (int p = 0; p < pages.length; p++)
+        {
+            long size = Math.min(PAGE_MASK + 1L, bytes - ((long) p << PAGE_BITS));
+            pages[p] = ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * @return The number of elements
+     */
+    public long length()
+    {
+        return length;
+    }
+
+    /**
+     * @return The page holding an element
+     */
+    private ByteBuffer page(long index)
+    {
+        return pages[(int) ((index << shift) >>> PAGE_BITS)];
+    }
+
+    /**
+     * @return The position of an element within its page
+     */
+    private int offset(long index)
+    {
+        return (int) (index << shift) & PAGE_MASK;
+    }
+
+    // Element accessors, each to be used with arrays of the matching element size
+
+    public byte getByte(long index)
+    {
+        return page(index).get(offset(index));
+    }
+
+    public void putByte(long index, byte value)
+    {
+        page(index).put(offset(index), value);
+    }
+
+    public int getInt(long index)
+    {
+        return page(index).getInt(offset(index));
+    }
+
+    public void putInt(long index, int value)
+    {
+        page(index).putInt(offset(index), value);
+    }
+
+    public float getFloat(long index)
+    {
+        return page(index).getFloat(offset(index));
+    }
+
+    public void putFloat(long index, float value)
+    {
+        page(index).putFloat(offset(index), value);
+    }
+
+    public long getLong(long index)
+    {
+        return page(index).getLong(offset(index));
+    }
+
+    public void putLong(long index, long value)
+    {
+        page(index).putLong(offset(index), value);
+    }
+
+    public double getDouble(long index)
+    {
+        return page(index).getDouble(offset(index));
+    }
+
+    public void putDouble(long index, double value)
+    {
+        page(index).putDouble(offset(index), value);
+    }
+
+    /**
+     * Sets every byte of the array, eight at a time.
+     *
+     * @param value The value of every byte
+     */
+    public void fill(byte value)
+    {
+        long pattern = (value & 0xFFL) * 0x0101010101010101L;
+        for (ByteBuffer page : pages)
+        {
+            int size = page.capacity();
+            int k = 0;
+            for (; k + 8 <= size; k += 8)
+            {
+                page.putLong(k, pattern);
+            }
+            for (; k < size; k++)
+            {
+                page.put(k, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ *
+ * Grid kept outside the Java heap, with the same bitmap and cost layout as BitGrid stored in
+ * OffHeapArrays. A grid of a billion cells takes 125 MB for the bitmap ( plus 1 GB once costs are set )
+ * without growing the heap, and it is searched with off-heap search state ( see SearchContext ), so the
+ * heap and the garbage collection pauses stay flat whatever the size of the map.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class OffHeapGrid extends Grid {
+
+    private final OffHeapArray open; //one bit per cell in 64 bit words, set when the cell is not blocked
+    private OffHeapArray costs; //unsigned cost of every cell, null while every cell costs 1
+    private int minCost = 1; //lowest cost of any cell, 0 when it has to be recomputed
+
+    /**
+     * Creates a grid with every cell blocked
+     *
+     * @param rows Number of rows of the matrix
+     * @param columns Number of columns of the matrix
+     */
+    public OffHeapGrid(int rows, int columns)
+    {
+        super(rows, columns);
+        this.open = new OffHeapArray(wordCount(), 8);
+    }
+
+    /**
+     * Copies the cells and terrain costs of a grid outside the heap.
+     *
+     * @param grid The grid to be copied
+     * @return The copy
+     */
+    public static OffHeapGrid copyOf(Grid grid)
+    {
+        OffHeapGrid copy = new OffHeapGrid(grid.getRows(), grid.getColumns());
+        for (int k = 0, words = grid.wordCount(); k < words; k++)
+        {
+            copy.open.putLong(k, grid.getWord(k));
+        }
+        if (grid.hasCosts())
+        {
+            copy.costs = new OffHeapArray(grid.cellCount(), 1);
+            for (int cell = 0, cells = grid.cellCount(); cell < cells; cell++)
+            {
+                copy.costs.putByte(cell, (byte) grid.getCost(cell));
+            }
+            copy.minCost = grid.getMinCost();
+        }
+        return copy;
+    }
+
+    @Override
+    public boolean isOpen(int cell)
+    {
+        return (open.getLong(cell >>> 6) & (1L << cell)) != 0;
+    }
+
+    @Override
+    public long getWord(int k)
+    {
+        return open.getLong(k);
+    }
+
+    @Override
+    public void setOpen(int i, int j, boolean notBlocked)
+    {
+        int cell = index(i, j);
+        long word = open.getLong(cell >>> 6);
+        if (((word & (1L << cell)) != 0) == notBlocked)
+        {
+            return;
+        }
+        open.putLong(cell >>> 6, notBlocked ? word | (1L << cell) : word & ~(1L << cell));
+        cellChanged(cell, notBlocked);
+    }
+
+    @Override
+    public boolean isOffHeap()
+    {
+        return true;
+    }
+
+    @Override
+    public boolean hasCosts()
+    {
+        return costs != null;
+    }
+
+    @Override
+    public int getCost(int cell)
+    {
+        return costs == null ? 1 : costs.getByte(cell) & 0xFF;
+    }
+
+    @Override
+    public int getMinCost()
+    {
+        if (minCost == 0)
+        {
+            int min = 255;
+            for (int cell = 0, cells = cellCount(); cell < cells && min > 1; cell++)
+            {
+                min = Math.min(min, costs.getByte(cell) & 0xFF);
+            }
+            minCost = min;
+        }
+        return minCost;
+    }
+
+    @Override
+    public void setCost(int i, int j, int cost)
+    {
+        if (cost < 1 || cost > 255)
+        {
+            throw new IllegalArgumentException("Cost out of range: " + cost);
+        }
+        int cell = index(i, j);
+        if (costs == null)
+        {
+            if (cost == 1)
+            {
+                return;
+            }
+            costs = new OffHeapArray(cellCount(), 1);
+            costs.fill((byte) 1);
+        }
+        if (cost < minCost)
+        {
+            minCost = cost;
+        }
+        else if (getCost(cell) == minCost && cost > minCost)
+        {
+            minCost = 0;
+        }
+        costs.putByte(cell, (byte) cost);
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ *
+ * SearchContext keeping the state of every cell outside the heap, in OffHeapArrays : 24 bytes per cell
+ * for the G value, the heuristic value, the parent, the discovered stamp and the open list position.
+ * However large the grid, a search then only puts its open list on the heap, so the heap and the
+ * garbage collection pauses stay as small as for a small grid.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class OffHeapSearchContext extends SearchContext {
+
+    private final int capacity; //number of cells the context can hold
+    private final OffHeapArray g; //cost from the start to every discovered cell
+    private final OffHeapArray h; //estimated cost from every discovered cell to the goal
+    private final OffHeapArray parent; //previous cell on the cheapest known path to every discovered cell
+    private final OffHeapArray discovered; //generation stamp per cell, equal to the current generation once discovered
+
+    /**
+     * @param cellCount Number of cells the context can hold
+     */
+    public OffHeapSearchContext(int cellCount)
+    {
+        super(new OpenList(cellCount));
+        capacity = cellCount;
+        g = new OffHeapArray(cellCount, 8);
+        h = new OffHeapArray(cellCount, 4);
+        parent = new OffHeapArray(cellCount, 4);
+        discovered = new OffHeapArray(cellCount, 4);
+    }
+
+    @Override
+    public int capacity()
+    {
+        return capacity;
+    }
+
+    @Override
+    protected void clearStamps()
+    {
+        discovered.fill((byte) 0);
+    }
+
+    @Override
+    public boolean isDiscovered(int cell)
+    {
+        return discovered.getInt(cell) == generation;
+    }
+
+    @Override
+    public void discover(int cell, int parentCell, double gValue, float hValue)
+    {
+        discovered.putInt(cell, generation);
+        parent.putInt(cell, parentCell);
+        g.putDouble(cell, gValue);
+        h.putFloat(cell, hValue);
+        openList.add(cell, gValue + hValue);
+    }
+
+    @Override
+    public void improve(int cell, int parentCell, double gValue)
+    {
+        parent.putInt(cell, parentCell);
+        g.putDouble(cell, gValue);
+        openList.decreaseKey(cell, gValue + h.getFloat(cell));
+    }
+
+    @Override
+    public double getG(int cell)
+    {
+        return g.getDouble(cell);
+    }
+
+    @Override
+    public float getH(int cell)
+    {
+        return h.getFloat(cell);
+    }
+
+    @Override
+    public int getParent(int cell)
+    {
+        return parent.getInt(cell);
+    }
+
+    @Override
+    public void setParent(int cell, int parentCell)
+    {
+        parent.putInt(cell, parentCell);
+    }
+
+    /**
+     * IntHeap keeping the heap positions outside the heap. A position is stored plus one, so the zeroed
+     * memory of a new array already reads as no cell in the heap.
+     */
+    private static final class OpenList extends IntHeap
+    {
+        private final OffHeapArray position;
+
+        OpenList(int cellCount)
+        {
+            position = new OffHeapArray(cellCount, 4);
+        }
+
+        @Override
+        protected int getPosition(int cell)
+        {
+            return position.getInt(cell) - 1;
+        }
+
+        @Override
+        protected void setPosition(int cell, int position)
+        {
+            this.position.putInt(cell, position + 1);
+        }
+    }
+}
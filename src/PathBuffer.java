@@ -0,0 +1,84 @@
+import java.util.Arrays;
+
+/**
+ *
+ * PathSink that keeps the cells of a path packed in an int array as (i, j) pairs. The array only grows,
+ * so a buffer reused across searches stops allocating once it has held the longest path.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class PathBuffer implements PathSink {
+
+    private int[] cells; //row and column of every cell, cell k at 2 * k and 2 * k + 1
+    private int size; //number of cells held
+
+    public PathBuffer()
+    {
+        this(64);
+    }
+
+    /**
+     * @param capacity Number of cells the buffer holds before growing
+     */
+    public PathBuffer(int capacity)
+    {
+        cells = new int[2 * Math.max(capacity, 1)];
+    }
+
+    @Override
+    public void accept(int i, int j)
+    {
+        if (2 * size == cells.length)
+        {
+            cells = Arrays.copyOf(cells, 2 * cells.length);
+        }
+        cells[2 * size] = i;
+        cells[2 * size + 1] = j;
+        size++;
+    }
+
+    /**
+     * Forgets the cells held, keeping the array for the next path
+     */
+    public void clear()
+    {
+        size = 0;
+    }
+
+    /**
+     * @return The number of cells held
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @param k Position of the cell on the path
+     * @return Row number of the cell
+     */
+    public int getI(int k)
+    {
+        return cells[2 * k];
+    }
+
+    /**
+     * @param k Position of the cell on the path
+     * @return Column number of the cell
+     */
+    public int getJ(int k)
+    {
+        return cells[2 * k + 1];
+    }
+
+    /**
+     * @return A copy of the cells as (i, j) pairs
+     */
+    public int[] toArray()
+    {
+        return Arrays.copyOf(cells, 2 * size);
+    }
+}
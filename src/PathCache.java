@@ -0,0 +1,393 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ *
+ * Bounded cache of answered queries in front of the search engines of one grid, keyed on the start,
+ * the goal and the metric. The least recently used paths are evicted once the cache holds more paths,
+ * or more path cells in total, than allowed. Paths are kept as packed cells and G values and turned
+ * back into nodes on every hit, so callers never share nodes.
+ *
+ * Changes to the grid invalidate only the paths they can affect. When a cell is blocked or gets more
+ * expensive, the paths through it are dropped and every other path stays the shortest one. When a cell
+ * is opened or gets cheaper, a path is dropped if a path through that cell could be shorter, that is if
+ * the heuristic lower bound from the start to the cell and on to the goal is below the cached cost.
+ * Cached "no path" answers are dropped whenever a cell opens.
+ *
+ * The cache may be shared by many threads, but like the grid it must not be changed while a search
+ * runs.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class PathCache {
+
+    private final Grid grid; //grid the cached paths were found on
+    private final Function<String, PathFinder> engineFactory; //builds the engine of a metric on first use
+    private final Map<String, PathFinder> engines = new ConcurrentHashMap<String, PathFinder>();
+    private final Map<String, Heuristic> heuristics = new ConcurrentHashMap<String, Heuristic>();
+    private final int maxEntries; //most paths kept at once
+    private final long maxCells; //most path cells kept at once, over every path
+
+    //cached paths from least to most recently used, guarded by this
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+    private long cells; //path cells held by the entries
+    private long version; //bumped by every invalidation, a search started before it isn't cached
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Creates a cache in front of AStar engines.
+     *
+     * @param grid The grid to be searched
+     * @param maxEntries Most paths kept at once
+     */
+    public PathCache(Grid grid, int maxEntries)
+    {
+        this(grid, maxEntries, Long.MAX_VALUE, metric -> new AStar(grid, metric));
+    }
+
+    /**
+     * @param grid The grid to be searched
+     * @param maxEntries Most paths kept at once
+     * @param maxCells Most path cells kept at once, over every path
+     * @param engineFactory Builds the engine answering the queries of a metric, it must search the grid
+     */
+    public PathCache(Grid grid, int maxEntries, long maxCells, Function<String, PathFinder> engineFactory)
+    {
+        if (maxEntries < 1 || maxCells < 1)
+        {
+            throw new IllegalArgumentException("Cache must hold at least one path: " + maxEntries + ", " + maxCells);
+        }
+        this.grid = grid;
+        this.maxEntries = maxEntries;
+        this.maxCells = maxCells;
+        this.engineFactory = engineFactory;
+    }
+
+    /**
+     * @param metric The distance measurement type
+     * @return A path finder answering the queries of the metric through the cache
+     */
+    public PathFinder forMetric(String metric)
+    {
+        return (startI, startJ, goalI, goalJ) -> findPath(metric, startI, startJ, goalI, goalJ);
+    }
+
+    /**
+     * Returns the cached path of a query, searching for it on a miss.
+     *
+     * @param metric The distance measurement type
+     * @param startI Row number of the starting node
+     * @param startJ Column number of the starting node
+     * @param goalI Row number of the goal node
+     * @param goalJ Column number of the goal node
+     * @return A list of nodes to follow which gives the shortest distance to the goal, empty if no path
+     *         exists or the start is the goal
+     */
+    public List<Node> findPath(String metric, int startI, int startJ, int goalI, int goalJ)
+    {
+        if (startI == goalI && startJ == goalJ)
+        {
+            return new LinkedList<Node>();
+        }
+
+        Key key = new Key(grid.index(startI, startJ), grid.index(goalI, goalJ), metric);
+        long searchedVersion;
+        synchronized (this)
+        {
+            Entry entry = entries.get(key);
+            if (entry != null)
+            {
+                hits++;
+                return entry.toPath(startI, startJ);
+            }
+            misses++;
+            searchedVersion = version;
+        }
+
+        PathFinder engine = engines.computeIfAbsent(metric, engineFactory);
+        List<Node> path = engine.findPath(startI, startJ, goalI, goalJ);
+        Entry entry = new Entry(grid, key.start, path);
+
+        synchronized (this)
+        {
+            if (searchedVersion == version && entry.cells.length <= maxCells)
+            {
+                Entry previous = entries.put(key, entry);
+                if (previous != null)
+                {
+                    cells -= previous.cells.length;
+                }
+                cells += entry.cells.length;
+                evict();
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Drops the least recently used paths until the cache is within its bounds.
+     */
+    private void evict()
+    {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || cells > maxCells)
+        {
+            cells -= eldest.next().cells.length;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Sets if a cell of the grid is not blocked, dropping the cached paths the change can affect.
+     *
+     * @param i Row number of the cell
+     * @param j Column number of the cell
+     * @param notBlocked is this cell blocked or not
+     */
+    public void setOpen(int i, int j, boolean notBlocked)
+    {
+        if (grid.isOpen(i, j) != notBlocked)
+        {
+            grid.setOpen(i, j, notBlocked);
+            cellChanged(i, j, !notBlocked);
+        }
+    }
+
+    /**
+     * Sets the terrain cost of a cell of the grid, dropping the cached paths the change can affect.
+     *
+     * @param i Row number of the cell
+     * @param j Column number of the cell
+     * @param cost The cost of moving into the cell, from 1 to 255
+     */
+    public void setCost(int i, int j, int cost)
+    {
+        int previous = grid.getCost(grid.index(i, j));
+        if (previous != cost)
+        {
+            grid.setCost(i, j, cost);
+            cellChanged(i, j, cost > previous);
+        }
+    }
+
+    /**
+     * Drops the cached paths a change of a cell can affect, for cells changed without going through the
+     * cache ( by a DStarLite sharing the grid, for instance ).
+     *
+     * @param i Row number of the cell
+     * @param j Column number of the cell
+     * @param worse True if the cell was blocked or got more expensive, false if it was opened or got
+     *              cheaper
+     */
+    public synchronized void cellChanged(int i, int j, boolean worse)
+    {
+        int cell = grid.index(i, j);
+        double scale = grid.getMinCost();
+        version++;
+
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext())
+        {
+            Map.Entry<Key, Entry> mapping = iterator.next();
+            Key key = mapping.getKey();
+            Entry entry = mapping.getValue();
+
+            // A path through the cell is dropped either way, its cost changed or it was cut
+            boolean affected = entry.passesThrough(cell, key.start);
+            if (!affected && !worse)
+            {
+                Heuristic heuristic = heuristics.computeIfAbsent(key.metric, Heuristic::forMetric);
+                double bound = scale * (estimate(heuristic, key.start, cell) + estimate(heuristic, cell, key.goal));
+                affected = bound <= entry.cost * (1 + 1e-9);
+            }
+            if (affected)
+            {
+                cells -= entry.cells.length;
+                iterator.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    private double estimate(Heuristic heuristic, int from, int to)
+    {
+        int columns = grid.getColumns();
+        return heuristic.estimate(Math.abs(from / columns - to / columns), Math.abs(from % columns - to % columns));
+    }
+
+    /**
+     * Drops every cached path, the counters are kept.
+     */
+    public synchronized void clear()
+    {
+        entries.clear();
+        cells = 0;
+        version++;
+    }
+
+    /**
+     * @return The number of cached paths
+     */
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * @return The number of queries answered from the cache
+     */
+    public synchronized long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * @return The number of queries that needed a search
+     */
+    public synchronized long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * @return The number of paths dropped to stay within the bounds
+     */
+    public synchronized long getEvictions()
+    {
+        return evictions;
+    }
+
+    /**
+     * @return The number of paths dropped because of a change of the grid
+     */
+    public synchronized long getInvalidations()
+    {
+        return invalidations;
+    }
+
+    /**
+     * Start, goal and metric of a query.
+     */
+    private static final class Key
+    {
+        final int start;
+        final int goal;
+        final String metric;
+
+        Key(int start, int goal, String metric)
+        {
+            this.start = start;
+            this.goal = goal;
+            this.metric = metric;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Key))
+            {
+                return false;
+            }
+            Key other = (Key) o;
+            return start == other.start && goal == other.goal && metric.equals(other.metric);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return (start * 31 + goal) * 31 + metric.hashCode();
+        }
+    }
+
+    /**
+     * A cached path : its cells after the start, the G value of every cell and the bounding box of the
+     * cells and the start, which rules most cells out before the path is scanned.
+     */
+    private static final class Entry
+    {
+        final int columns;
+        final int[] cells;
+        final double[] g;
+        final double cost; //total cost of the path, infinity when no path exists
+        final int minI, maxI, minJ, maxJ;
+
+        Entry(Grid grid, int start, List<Node> path)
+        {
+            columns = grid.getColumns();
+            cells = new int[path.size()];
+            g = new double[path.size()];
+            int top = start / columns, bottom = top, left = start % columns, right = left;
+            int k = 0;
+            for (Node node : path)
+            {
+                cells[k] = grid.index(node.getI(), node.getJ());
+                g[k++] = node.getG();
+                top = Math.min(top, node.getI());
+                bottom = Math.max(bottom, node.getI());
+                left = Math.min(left, node.getJ());
+                right = Math.max(right, node.getJ());
+            }
+            cost = path.isEmpty() ? Double.POSITIVE_INFINITY : g[g.length - 1];
+            minI = top;
+            maxI = bottom;
+            minJ = left;
+            maxJ = right;
+        }
+
+        /**
+         * @return True if the path starts at or goes through the cell
+         */
+        boolean passesThrough(int cell, int start)
+        {
+            int i = cell / columns;
+            int j = cell % columns;
+            if (i < minI || i > maxI || j < minJ || j > maxJ)
+            {
+                return false;
+            }
+            if (cell == start)
+            {
+                return true;
+            }
+            for (int pathCell : cells)
+            {
+                if (pathCell == cell)
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return The path as a fresh list of nodes, linked to their parents and carrying their G values
+         */
+        List<Node> toPath(int startI, int startJ)
+        {
+            LinkedList<Node> path = new LinkedList<Node>();
+            Node parent = new Node(startI, startJ, true);
+            for (int k = 0; k < cells.length; k++)
+            {
+                Node node = new Node(cells[k] / columns, cells[k] % columns, true);
+                node.g = g[k];
+                node.setParent(parent);
+                path.add(node);
+                parent = node;
+            }
+            return path;
+        }
+    }
+}
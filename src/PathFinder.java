@@ -0,0 +1,50 @@
+import java.util.List;
+
+/**
+ *
+ * A search engine answering single start/goal queries on a grid.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public interface PathFinder {
+
+    /**
+     * Calculates the shortest path using the starting node and the ending node
+     *
+     * @param startI Row number of the starting node
+     * @param startJ Column number of the starting node
+     * @param goalI Row number of the goal node
+     * @param goalJ Column number of the goal node
+     * @return A list of nodes to follow which gives the shortest distance to the goal, empty if no path
+     *         exists or the start is the goal
+     */
+    List<Node> findPath(int startI, int startJ, int goalI, int goalJ);
+
+    /**
+     * Calculates the shortest path and streams its cells to a sink in order, from the first step after
+     * the start to the goal. Engines able to walk their search state override this to skip the list.
+     *
+     * @param startI Row number of the starting node
+     * @param startJ Column number of the starting node
+     * @param goalI Row number of the goal node
+     * @param goalJ Column number of the goal node
+     * @param sink Receives the cells of the path, nothing if no path exists or the start is the goal
+     * @return The total cost of the path, 0 when no move is needed and infinity when no path exists
+     */
+    default double findPath(int startI, int startJ, int goalI, int goalJ, PathSink sink)
+    {
+        List<Node> path = findPath(startI, startJ, goalI, goalJ);
+        if (path.isEmpty())
+        {
+            return startI == goalI && startJ == goalJ ? 0.0 : Double.POSITIVE_INFINITY;
+        }
+        for (Node node : path)
+        {
+            sink.accept(node.getI(), node.getJ());
+        }
+        return path.get(path.size() - 1).getG();
+    }
+}
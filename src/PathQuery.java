@@ -0,0 +1,55 @@
+/**
+ *
+ * A single start/goal pair to be answered by a PathService.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class PathQuery {
+
+    private final int startI; //row number of the starting node
+    private final int startJ; //column number of the starting node
+    private final int goalI; //row number of the goal node
+    private final int goalJ; //column number of the goal node
+
+    /**
+     * @param startI Row number of the starting node
+     * @param startJ Column number of the starting node
+     * @param goalI Row number of the goal node
+     * @param goalJ Column number of the goal node
+     */
+    public PathQuery(int startI, int startJ, int goalI, int goalJ)
+    {
+        this.startI = startI;
+        this.startJ = startJ;
+        this.goalI = goalI;
+        this.goalJ = goalJ;
+    }
+
+    public int getStartI()
+    {
+        return startI;
+    }
+
+    public int getStartJ()
+    {
+        return startJ;
+    }
+
+    public int getGoalI()
+    {
+        return goalI;
+    }
+
+    public int getGoalJ()
+    {
+        return goalJ;
+    }
+
+    @Override
+    public String toString() {
+        return "PathQuery (" + startI + "," + startJ + " -> " + goalI + "," + goalJ + ')';
+    }
+}
@@ -0,0 +1,91 @@
+import java.util.List;
+
+/**
+ *
+ * The answer to a PathQuery : the nodes to follow from the start to the goal, or only the cost and
+ * length of the path for callers which don't need its nodes.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class PathResult {
+
+    private final PathQuery query; //the query this result answers
+    private final List<Node> path; //nodes to follow, empty if no path exists or no move is needed, null if not kept
+    private final double cost; //total cost of the path, 0 when no move is needed and infinity when no path exists
+    private final int length; //number of cells on the path after the start
+
+    public PathResult(PathQuery query, List<Node> path)
+    {
+        this.query = query;
+        this.path = path;
+        this.length = path.size();
+        if (!path.isEmpty())
+        {
+            this.cost = path.get(path.size() - 1).getG();
+        }
+        else
+        {
+            boolean here = query.getStartI() == query.getGoalI() && query.getStartJ() == query.getGoalJ();
+            this.cost = here ? 0.0 : Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Creates a result which keeps the cost and length of the path but not its nodes.
+     *
+     * @param query The query this result answers
+     * @param cost The total cost of the path, 0 when no move is needed and infinity when no path exists
+     * @param length The number of cells on the path after the start
+     */
+    public PathResult(PathQuery query, double cost, int length)
+    {
+        this.query = query;
+        this.path = null;
+        this.cost = cost;
+        this.length = length;
+    }
+
+    /**
+     * @return The query this result answers
+     */
+    public PathQuery getQuery()
+    {
+        return query;
+    }
+
+    /**
+     * @return The nodes to follow from the start to the goal ( the start itself is not included ), null
+     *         if the result only keeps the cost and length
+     */
+    public List<Node> getPath()
+    {
+        return path;
+    }
+
+    /**
+     * @return True if the goal can be reached from the start
+     */
+    public boolean isFound()
+    {
+        return cost != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @return The total cost of the path, 0 when no move is needed and infinity when no path exists
+     */
+    public double getCost()
+    {
+        return cost;
+    }
+
+    /**
+     * @return The number of cells on the path after the start, 0 if no path exists
+     */
+    public int getLength()
+    {
+        return length;
+    }
+}
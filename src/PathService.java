@@ -0,0 +1,156 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ *
+ * Answers batches of path queries in parallel against one shared grid. The grid and the search
+ * engine are only read by the searches and every worker thread uses its own pooled SearchContext,
+ * so no locks are taken and throughput grows with the number of cores.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class PathService {
+
+    //path buffer of every thread, reused by the queries answered without their nodes
+    private static final ThreadLocal<PathBuffer> BUFFERS = ThreadLocal.withInitial(PathBuffer::new);
+
+    private final PathFinder pathFinder; //shared, thread safe search engine
+    private final ForkJoinPool pool; //threads the queries run on
+
+    /**
+     * Creates a service running its queries on the common fork join pool.
+     *
+     * @param grid The grid to be searched
+     * @param metric The distance measurement type
+     */
+    public PathService(Grid grid, String metric)
+    {
+        this(grid, metric, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param grid The grid to be searched
+     * @param metric The distance measurement type
+     * @param pool The pool the queries run on
+     */
+    public PathService(Grid grid, String metric, ForkJoinPool pool)
+    {
+        this(new AStar(grid, metric), pool);
+    }
+
+    /**
+     * @param pathFinder The engine answering the queries, it must be safe to call from many threads
+     * @param pool The pool the queries run on
+     */
+    public PathService(PathFinder pathFinder, ForkJoinPool pool)
+    {
+        this.pathFinder = pathFinder;
+        this.pool = pool;
+    }
+
+    /**
+     * Answers a single query on the current thread.
+     *
+     * @param query The start/goal pair
+     * @return The path found for the query
+     */
+    public PathResult find(PathQuery query)
+    {
+        return new PathResult(query,
+                pathFinder.findPath(query.getStartI(), query.getStartJ(), query.getGoalI(), query.getGoalJ()));
+    }
+
+    /**
+     * Answers a single query on the current thread, keeping the cost and length of the path but not its
+     * nodes. The path streams into a buffer of the thread, so no list of nodes is built for engines
+     * which can skip it ( see PathFinder.findPath with a PathSink ).
+     *
+     * @param query The start/goal pair
+     * @return The cost and length of the path found for the query
+     */
+    public PathResult measure(PathQuery query)
+    {
+        PathBuffer buffer = BUFFERS.get();
+        buffer.clear();
+        double cost = pathFinder.findPath(query.getStartI(), query.getStartJ(), query.getGoalI(), query.getGoalJ(),
+                buffer);
+        return new PathResult(query, cost, buffer.size());
+    }
+
+    /**
+     * Schedules a single query on the pool.
+     *
+     * @param query The start/goal pair
+     * @return A future completed with the path found for the query
+     */
+    public CompletableFuture<PathResult> submit(final PathQuery query)
+    {
+        return CompletableFuture.supplyAsync(() -> find(query), pool);
+    }
+
+    /**
+     * Schedules every query on the pool.
+     *
+     * @param queries The start/goal pairs
+     * @return One future per query, in the iteration order of the collection
+     */
+    public List<CompletableFuture<PathResult>> submitAll(Collection<PathQuery> queries)
+    {
+        List<CompletableFuture<PathResult>> futures = new ArrayList<CompletableFuture<PathResult>>(queries.size());
+        for (PathQuery query : queries)
+        {
+            futures.add(submit(query));
+        }
+        return futures;
+    }
+
+    /**
+     * Answers every query on the pool and waits for all of them.
+     *
+     * @param queries The start/goal pairs
+     * @return The results, in the iteration order of the collection
+     */
+    public List<PathResult> findAll(Collection<PathQuery> queries)
+    {
+        List<CompletableFuture<PathResult>> futures = submitAll(queries);
+        List<PathResult> results = new ArrayList<PathResult>(futures.size());
+        for (CompletableFuture<PathResult> future : futures)
+        {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * Measures every query on the pool ( see measure ) and waits for all of them.
+     *
+     * @param queries The start/goal pairs
+     * @return The results without their nodes, in the iteration order of the collection
+     */
+    public List<PathResult> measureAll(Collection<PathQuery> queries)
+    {
+        return pool.submit(() -> queries.parallelStream().map(this::measure).collect(Collectors.toList())).join();
+    }
+
+    /**
+     * Answers the queries as a parallel stream run on the pool, so the stream honours the thread count
+     * of the service like findAll does. The searches run before this returns.
+     *
+     * @param queries The start/goal pairs
+     * @return A stream of the results, in the iteration order of the collection
+     */
+    public Stream<PathResult> stream(Collection<PathQuery> queries)
+    {
+        List<PathResult> results = pool.submit(
+                () -> queries.parallelStream().map(this::find).collect(Collectors.toList())).join();
+        return results.stream();
+    }
+}
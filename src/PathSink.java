@@ -0,0 +1,18 @@
+/**
+ *
+ * Receives the cells of a path one at a time, from the first step after the start to the goal. Lets a
+ * caller consume a path without a list of nodes being built for it.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public interface PathSink {
+
+    /**
+     * @param i Row number of the next cell on the path
+     * @param j Column number of the next cell on the path
+     */
+    void accept(int i, int j);
+}
@@ -0,0 +1,153 @@
+/**
+ *
+ * Mutable state of a single search : G values, heuristic values, parents, discovered stamps and the
+ * open list. Keeping it out of the grid lets one grid be searched by many threads at once. Contexts
+ * are pooled per thread and reset in O(1) between searches by bumping a generation counter.
+ *
+ * The per-cell state is left to the subclasses : ArraySearchContext keeps it in arrays on the heap and
+ * OffHeapSearchContext outside it. forGrid hands out the kind matching the grid, so the searches of a
+ * grid held outside the heap ( see Grid.isOffHeap ) keep the heap as flat as the grid does.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public abstract class SearchContext {
+
+    //number of contexts a thread can hold at once ( a bidirectional search needs two )
+    private static final int SLOTS = 2;
+
+    //contexts of every thread, the heap ones then the off-heap ones, grown when a larger grid is searched
+    private static final ThreadLocal<SearchContext[]> POOL = new ThreadLocal<SearchContext[]>();
+
+    final IntHeap openList; //cells discovered but not yet visited, keyed on their F value
+
+    protected int generation; //incremented by reset to invalidate older stamps
+
+    /**
+     * @param openList The open list, able to hold every cell of the context
+     */
+    protected SearchContext(IntHeap openList)
+    {
+        this.openList = openList;
+    }
+
+    /**
+     * Returns the calling thread's context, reset and large enough for the given grid.
+     *
+     * @param grid The grid to be searched
+     * @return A reset search context owned by the calling thread
+     */
+    public static SearchContext forGrid(Grid grid)
+    {
+        return forGrid(grid, 0);
+    }
+
+    /**
+     * Returns one of the calling thread's contexts, reset and large enough for the given grid. Searches
+     * that need several independent states at once use a different slot for each.
+     *
+     * @param grid The grid to be searched
+     * @param slot Index of the context, 0 or 1
+     * @return A reset search context owned by the calling thread, kept off the heap when the grid's
+     *         cells are
+     */
+    public static SearchContext forGrid(Grid grid, int slot)
+    {
+        SearchContext[] contexts = POOL.get();
+        if (contexts == null)
+        {
+            contexts = new SearchContext[2 * SLOTS];
+            POOL.set(contexts);
+        }
+        boolean offHeap = grid.isOffHeap();
+        int k = offHeap ? SLOTS + slot : slot;
+        SearchContext context = contexts[k];
+        if (context == null || context.capacity() < grid.cellCount())
+        {
+            // Drop the old context first, an off-heap one may be too large to hold two of
+            contexts[k] = null;
+            context = offHeap ? new OffHeapSearchContext(grid.cellCount()) : new ArraySearchContext(grid.cellCount());
+            contexts[k] = context;
+        }
+        context.reset();
+        return context;
+    }
+
+    /**
+     * @return The number of cells the context can hold
+     */
+    public abstract int capacity();
+
+    /**
+     * Forgets the previous search. Every discovered cell becomes undiscovered without clearing the
+     * stamps, they are only reset when the counter overflows.
+     */
+    public void reset()
+    {
+        openList.clear();
+        if (generation == Integer.MAX_VALUE)
+        {
+            clearStamps();
+            generation = 0;
+        }
+        generation++;
+    }
+
+    /**
+     * Sets the discovered stamp of every cell to 0.
+     */
+    protected abstract void clearStamps();
+
+    /**
+     * @param cell Index of the cell
+     * @return True if the cell was discovered by the current search
+     */
+    public abstract boolean isDiscovered(int cell);
+
+    /**
+     * Records the first visit of a cell by the current search.
+     *
+     * @param cell Index of the cell
+     * @param parentCell Previous cell on the path ( -1 for the start )
+     * @param gValue Cost from the start to the cell
+     * @param hValue Estimated cost from the cell to the goal
+     */
+    public abstract void discover(int cell, int parentCell, double gValue, float hValue);
+
+    /**
+     * Records a cheaper path to a cell which is still in the open list.
+     *
+     * @param cell Index of the cell
+     * @param parentCell New previous cell on the path
+     * @param gValue New cost from the start to the cell
+     */
+    public abstract void improve(int cell, int parentCell, double gValue);
+
+    /**
+     * @param cell Index of a discovered cell
+     * @return The cost from the start to the cell
+     */
+    public abstract double getG(int cell);
+
+    /**
+     * @param cell Index of a discovered cell
+     * @return The estimated cost from the cell to the goal
+     */
+    public abstract float getH(int cell);
+
+    /**
+     * @param cell Index of a discovered cell
+     * @return The previous cell on the path, -1 for the start
+     */
+    public abstract int getParent(int cell);
+
+    /**
+     * Overwrites the parent link of a cell, for callers walking the path of a finished search.
+     *
+     * @param cell Index of a discovered cell
+     * @param parentCell The new parent link
+     */
+    public abstract void setParent(int cell, int parentCell);
+}
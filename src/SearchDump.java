@@ -0,0 +1,233 @@
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+import javax.imageio.ImageIO;
+
+/**
+ *
+ * Snapshot of one search ( see AStar.dump ) : the G, H and F values of every discovered cell, the order
+ * the cells were expanded in and the path found, written either as a packed binary file or as a PNG
+ * heatmap with one pixel per cell. Both go through a buffered channel, so the search of a large grid is
+ * exported in seconds and inspected offline.
+ *
+ * Binary layout ( little-endian ) :
+ *   header  32 bytes : magic "ADMP", version, rows, columns, start cell, goal cell, number of expanded
+ *           cells, number of path cells
+ *   g, h, f one float per cell each, NaN for cells the search never discovered
+ *   order   one int per cell, k for the k-th cell expanded and 0 for cells never expanded
+ *   path    one int per path cell, the cell indices from the start to the goal
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public final class SearchDump {
+
+    public static final int MAGIC = 0x504D4441; //"ADMP" read as a little-endian int
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+
+    // Colors of the cells without a value in a heatmap
+    private static final int BLOCKED = 0x000000;
+    private static final int UNSEEN = 0xD0D0D0;
+    private static final int PATH = 0xFFFFFF;
+
+    /**
+     * Values kept for every cell.
+     */
+    public enum Field {
+        G, H, F, ORDER
+    }
+
+    private final int rows; //number of rows of the grid
+    private final int columns; //number of columns of the grid, the stride of the cell indices
+    private final long[] open; //walkable cells, packed like BitGrid
+    private final float[] g; //cost from the start, NaN when not discovered
+    private final float[] h; //estimated cost to the goal, NaN when not discovered
+    private final int[] order; //rank of the expansion of every cell, 0 when not expanded
+    private final int expanded; //number of cells expanded
+    private final int start;
+    private final int goal;
+    private final int[] path; //cells from the start to the goal, empty if no path was found
+
+    /**
+     * @param grid The grid that was searched
+     * @param context The state the search left, null when no search ran
+     * @param order The rank of the expansion of every cell, 0 when not expanded, kept by the dump
+     * @param start Index of the starting cell
+     * @param goal Index of the goal cell
+     */
+    SearchDump(Grid grid, SearchContext context, int[] order, int start, int goal) {
+        this.rows = grid.getRows();
+        this.columns = grid.getColumns();
+        this.order = order;
+        this.start = start;
+        this.goal = goal;
+
+        open = new long[grid.wordCount()];
+        for (int k = 0; k < open.length; k++) {
+            open[k] = grid.getWord(k);
+        }
+
+        int cells = grid.cellCount();
+        g = new float[cells];
+        h = new float[cells];
+        int count = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            boolean discovered = context != null && context.isDiscovered(cell);
+            g[cell] = discovered ? (float) context.getG(cell) : Float.NaN;
+            h[cell] = discovered ? context.getH(cell) : Float.NaN;
+            if (order[cell] > 0) {
+                count++;
+            }
+        }
+        expanded = count;
+
+        if (context == null || !context.isDiscovered(goal)) {
+            path = new int[0];
+        } else {
+            int length = 1;
+            for (int cell = goal; cell != start; cell = context.getParent(cell)) {
+                length++;
+            }
+            path = new int[length];
+            for (int cell = goal, k = length - 1; k >= 0; cell = context.getParent(cell), k--) {
+                path[k] = cell;
+            }
+        }
+    }
+
+    /**
+     * @param field The value to be read
+     * @param cell Index of the cell
+     * @return The value of the cell, NaN if the search never discovered ( or for ORDER, expanded ) it
+     */
+    public float get(Field field, int cell) {
+        switch (field) {
+            case G: return g[cell];
+            case H: return h[cell];
+            case F: return g[cell] + h[cell];
+            default: return order[cell] > 0 ? order[cell] : Float.NaN;
+        }
+    }
+
+    /**
+     * @return The number of cells the search expanded
+     */
+    public int getExpanded() {
+        return expanded;
+    }
+
+    /**
+     * @return The cells of the path from the start to the goal, empty if no path was found
+     */
+    public int[] getPath() {
+        return path.clone();
+    }
+
+    /**
+     * Writes the dump in the packed binary layout.
+     *
+     * @param file Path of the file, replaced if it exists
+     */
+    public void write(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(columns)
+                    .putInt(start).putInt(goal).putInt(expanded).putInt(path.length);
+
+            for (Field field : new Field[] {Field.G, Field.H, Field.F}) {
+                for (int cell = 0; cell < g.length; cell++) {
+                    if (buffer.remaining() < 4) {
+                        GridFile.drain(buffer, channel);
+                    }
+                    buffer.putFloat(get(field, cell));
+                }
+            }
+            for (int[] ints : new int[][] {order, path}) {
+                for (int value : ints) {
+                    if (buffer.remaining() < 4) {
+                        GridFile.drain(buffer, channel);
+                    }
+                    buffer.putInt(value);
+                }
+            }
+            GridFile.drain(buffer, channel);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes one field as a PNG heatmap, one pixel per cell. Values run from blue for the lowest to red
+     * for the highest, blocked cells are black, cells without a value light gray and the path white.
+     *
+     * @param file Path of the file, replaced if it exists
+     * @param field The value to be drawn
+     */
+    public void writePng(Path file, Field field) throws IOException {
+        BufferedImage image = toImage(field);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+            if (!ImageIO.write(image, "png", out)) {
+                throw new IOException("No PNG writer available");
+            }
+            out.flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * @param field The value to be drawn
+     * @return The heatmap of the field, one pixel per cell
+     */
+    public BufferedImage toImage(Field field) {
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (int cell = 0; cell < g.length; cell++) {
+            float value = get(field, cell);
+            if (!Float.isNaN(value)) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        float low = min;
+        float range = max > min ? max - min : 1;
+
+        BufferedImage image = new BufferedImage(columns, rows, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        IntStream.range(0, rows).parallel().forEach(i -> {
+            for (int cell = i * columns, end = cell + columns; cell < end; cell++) {
+                float value = get(field, cell);
+                if ((open[cell >>> 6] & 1L << cell) == 0) {
+                    pixels[cell] = BLOCKED;
+                } else if (Float.isNaN(value)) {
+                    pixels[cell] = UNSEEN;
+                } else {
+                    // Hue from blue ( 2/3 ) for the lowest value down to red ( 0 ) for the highest
+                    pixels[cell] = Color.HSBtoRGB(2f / 3 * (1 - (value - low) / range), 1, 1) & 0xFFFFFF;
+                }
+            }
+        });
+        for (int cell : path) {
+            pixels[cell] = PATH;
+        }
+        return image;
+    }
+}
@@ -0,0 +1,216 @@
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ *
+ * Counters of the searches run by an engine the metrics are attached to ( see AStar.setMetrics ) : the
+ * queries answered, the cells expanded ( taken off the open list ), generated ( first discovered ) and
+ * improved ( given a cheaper path while open, the only way A* with a consistent heuristic re-opens a
+ * cell ), the largest open list seen and a histogram of the query latencies.
+ *
+ * The histogram has logarithmic buckets in the manner of HdrHistogram : every power of two is split in
+ * 8 linear sub-buckets, so a percentile is within 12.5% of the true latency whatever its magnitude and
+ * recording is a single atomic increment. Every counter is safe to update from many threads at once.
+ * An engine without metrics does no timing and no recording at all.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public class SearchMetrics implements SearchMetricsMXBean {
+
+    // Linear sub-buckets per power of two, as a number of bits
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder expanded = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder improved = new LongAdder();
+    private final LongAccumulator maxOpenSize = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0); //nanoseconds
+    private final LongAdder totalLatency = new LongAdder(); //nanoseconds
+    private final AtomicLongArray buckets = new AtomicLongArray(bucket(Long.MAX_VALUE) + 1);
+
+    /**
+     * Records one query.
+     *
+     * @param nanos Time the query took
+     * @param expandedCells Cells taken off the open list
+     * @param generatedCells Cells discovered
+     * @param improvedCells Open cells given a cheaper path
+     * @param openSize Largest size of the open list
+     */
+    public void record(long nanos, int expandedCells, int generatedCells, int improvedCells, int openSize)
+    {
+        queries.increment();
+        expanded.add(expandedCells);
+        generated.add(generatedCells);
+        improved.add(improvedCells);
+        maxOpenSize.accumulate(openSize);
+        maxLatency.accumulate(nanos);
+        totalLatency.add(nanos);
+        buckets.incrementAndGet(bucket(Math.max(0, nanos)));
+    }
+
+    /**
+     * @return The bucket of a value : the value itself below 8, otherwise 8 buckets per power of two
+     */
+    private static int bucket(long value)
+    {
+        if (value < SUB_BUCKETS)
+        {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @return The highest value falling in a bucket
+     */
+    private static long highest(int bucket)
+    {
+        if (bucket < SUB_BUCKETS)
+        {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BITS);
+        return lowest + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    /**
+     * @param quantile Fraction of the queries, from 0 to 1
+     * @return The latency in nanoseconds that the given fraction of the queries didn't exceed, within
+     *         the precision of the buckets
+     */
+    public long getLatencyNanos(double quantile)
+    {
+        long count = 0;
+        for (int b = 0; b < buckets.length(); b++)
+        {
+            count += buckets.get(b);
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int b = 0; b < buckets.length(); b++)
+        {
+            seen += buckets.get(b);
+            if (seen >= rank)
+            {
+                return Math.min(highest(b), maxLatency.get());
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public long getQueries()
+    {
+        return queries.sum();
+    }
+
+    @Override
+    public long getExpanded()
+    {
+        return expanded.sum();
+    }
+
+    @Override
+    public long getGenerated()
+    {
+        return generated.sum();
+    }
+
+    @Override
+    public long getImproved()
+    {
+        return improved.sum();
+    }
+
+    @Override
+    public int getMaxOpenSize()
+    {
+        return (int) maxOpenSize.get();
+    }
+
+    @Override
+    public double getMeanLatency()
+    {
+        long count = queries.sum();
+        return count == 0 ? 0 : totalLatency.sum() / 1e3 / count;
+    }
+
+    @Override
+    public double getLatencyP50()
+    {
+        return getLatencyNanos(0.5) / 1e3;
+    }
+
+    @Override
+    public double getLatencyP99()
+    {
+        return getLatencyNanos(0.99) / 1e3;
+    }
+
+    @Override
+    public double getLatencyP999()
+    {
+        return getLatencyNanos(0.999) / 1e3;
+    }
+
+    @Override
+    public double getMaxLatency()
+    {
+        return maxLatency.get() / 1e3;
+    }
+
+    /**
+     * Clears every counter. Queries recorded while it runs may be partly kept.
+     */
+    @Override
+    public void reset()
+    {
+        queries.reset();
+        expanded.reset();
+        generated.reset();
+        improved.reset();
+        maxOpenSize.reset();
+        maxLatency.reset();
+        totalLatency.reset();
+        for (int b = 0; b < buckets.length(); b++)
+        {
+            buckets.set(b, 0);
+        }
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server as astar:type=SearchMetrics,name=NAME.
+     *
+     * @param name Name telling the engines apart
+     * @return The name the metrics were registered under
+     */
+    public ObjectName register(String name) throws JMException
+    {
+        ObjectName objectName = new ObjectName("astar:type=SearchMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format(Locale.ROOT, "queries %d expanded %d generated %d improved %d max open %d"
+                        + " latency us mean %.1f p50 %.1f p99 %.1f p99.9 %.1f max %.1f",
+                getQueries(), getExpanded(), getGenerated(), getImproved(), getMaxOpenSize(),
+                getMeanLatency(), getLatencyP50(), getLatencyP99(), getLatencyP999(), getMaxLatency());
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ *
+ * JMX view of a SearchMetrics, registered with SearchMetrics.register. Latencies are in microseconds.
+ *
+ * @author brionsilva
+ * @version 1.0
+ * @since 16/10/2026
+ *
+ */
+public interface SearchMetricsMXBean {
+
+    long getQueries();
+
+    long getExpanded();
+
+    long getGenerated();
+
+    long getImproved();
+
+    int getMaxOpenSize();
+
+    double getMeanLatency();
+
+    double getLatencyP50();
+
+    double getLatencyP99();
+
+    double getLatencyP999();
+
+    double getMaxLatency();
+
+    void reset();
+}